@@ -0,0 +1,83 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal closed-loop HTTP load generator for hosts without hey; prints hey's summary format
+ * (Requests/sec, latency percentiles, status code distribution) so bench scripts parse either.
+ *
+ * Each of <concurrency> workers keeps one HTTP/1.1 request in flight until the duration ends.
+ *
+ * Run (JDK 11+, no build): java HttpLoad.java <url> <concurrency> <seconds>
+ */
+public class HttpLoad {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        long durationNanos = Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(20)).GET().build();
+
+        long[] latencies = new long[1 << 22];
+        AtomicInteger count = new AtomicInteger();
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = loop(client, request, deadline, latencies, count, statuses);
+        }
+        CompletableFuture.allOf(workers).join();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        int n = Math.min(count.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, n);
+        Arrays.sort(sorted);
+        System.out.printf("%nSummary:%n  Total:\t%.4f secs%n", elapsed);
+        System.out.printf("  Requests/sec:\t%.4f%n%n", count.get() / elapsed);
+        System.out.println("Latency distribution:");
+        for (int p : new int[]{10, 25, 50, 75, 90, 95, 99}) {
+            double seconds = n == 0 ? 0 : sorted[Math.min(n - 1, (int) ((long) n * p / 100))] / 1e9;
+            System.out.printf("  %d%% in %.4f secs%n", p, seconds);
+        }
+        System.out.printf("%nStatus code distribution:%n");
+        new TreeMap<>(statuses).forEach((status, responses) ->
+                System.out.printf("  [%d]\t%d responses%n", status, responses.sum()));
+        System.exit(0);
+    }
+
+    // Status 0: connection error or timeout
+    private static CompletableFuture<Void> loop(HttpClient client, HttpRequest request, long deadline,
+                                                long[] latencies, AtomicInteger count,
+                                                Map<Integer, LongAdder> statuses) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    int slot = count.getAndIncrement();
+                    if (slot < latencies.length) {
+                        latencies[slot] = System.nanoTime() - sent;
+                    }
+                    statuses.computeIfAbsent(error == null ? response.statusCode() : 0, s -> new LongAdder()).increment();
+                    return null;
+                })
+                .thenCompose(ignored -> loop(client, request, deadline, latencies, count, statuses));
+    }
+}
@@ -0,0 +1,42 @@
+#!/bin/bash
+# =============================================================================
+# quad-services - Agent Rules wire-size / latency benchmark
+# =============================================================================
+# Compares bytes-on-the-wire and latency of GET /agent-rules for an identity
+# response (HTTP/1.1, no compression) vs gzip over h2c.
+#
+# Usage:
+#   ./bench-agent-rules.sh <orgId> [activityType] [requests] [baseUrl]
+#   ./bench-agent-rules.sh 3f1c...e2 add_api_endpoint 200 http://localhost:14101
+# =============================================================================
+
+set -e
+
+ORG_ID="${1:?orgId required}"
+ACTIVITY="${2:-add_api_endpoint}"
+REQUESTS="${3:-200}"
+BASE_URL="${4:-http://localhost:8080}"
+URL="$BASE_URL/v1/agent-rules?orgId=$ORG_ID&activityType=$ACTIVITY"
+
+run() {
+    local label="$1"; shift
+    local total_bytes=0
+    local total_time=0
+
+    # Warm the rules cache and the pre-compressed payload
+    curl -s -o /dev/null "$@" "$URL"
+
+    for _ in $(seq 1 "$REQUESTS"); do
+        read -r bytes time < <(curl -s -o /dev/null -w "%{size_download} %{time_total}\n" "$@" "$URL")
+        total_bytes=$((total_bytes + bytes))
+        total_time=$(echo "$total_time + $time" | bc -l)
+    done
+
+    printf "%-28s avg bytes: %6d   avg latency: %.2f ms\n" "$label" \
+        $((total_bytes / REQUESTS)) "$(echo "$total_time * 1000 / $REQUESTS" | bc -l)"
+}
+
+echo "GET $URL  ($REQUESTS requests each)"
+run "HTTP/1.1 identity"  --http1.1 -H "Accept-Encoding: identity"
+run "HTTP/1.1 gzip"      --http1.1 -H "Accept-Encoding: gzip"
+run "h2c gzip"           --http2-prior-knowledge -H "Accept-Encoding: gzip"
@@ -0,0 +1,98 @@
+#!/bin/bash
+# =============================================================================
+# quad-services - Connection pool bulkhead isolation load test
+# =============================================================================
+# Measures read latency (GET /users/email/{email}/exists -> user-read pool and
+# GET /agent-rules -> rules-read pool) first on an idle service, then while a
+# burst of POST /auth/signup (auth-write pool) saturates the auth-write pool.
+# With bulkheads reads never wait for an auth-write connection; with
+# QUAD_DATASOURCE_BULKHEADS_ENABLED=false they queue behind signups on the
+# shared pool. Signups hash passwords before taking a connection, so on few CPUs
+# the burst's BCrypt work also shows up in read latency either way.
+#
+# Every read is a cache miss, so it really takes a connection:
+# - users/exists always queries quad_users; each read uses a new email
+# - agent-rules reads use a fresh (org, activityType) pair each: the script signs
+#   up <reads> orgs first and gives each phase its own activity type
+#
+# Start the service with rate limiting off so the burst reaches the DB:
+#   mvn spring-boot:run -Dspring-boot.run.arguments=--quad.rate-limit.enabled=false
+#
+# Usage:
+#   ./bench-bulkheads.sh [signups] [concurrency] [reads] [baseUrl]
+#   ./bench-bulkheads.sh 2000 64 300 http://localhost:14101
+#
+# While it runs, pool saturation per workload is visible in
+#   /actuator/metrics/hikaricp.connections.pending?tag=pool:quad-auth-write
+# =============================================================================
+
+set -e
+
+SIGNUPS="${1:-2000}"
+CONCURRENCY="${2:-64}"
+READS="${3:-300}"
+BASE_URL="${4:-http://localhost:8080}"
+RUN_ID="$(date +%s)"
+WORK_DIR="$(mktemp -d)"
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+# p50 / p95 / p99 / max of a file of latencies in seconds
+percentiles() {
+    sort -n "$1" | awk '{ v[NR] = $1 * 1000 } END {
+        printf "p50 %7.1f ms   p95 %7.1f ms   p99 %7.1f ms   max %7.1f ms   (n=%d)\n",
+            v[int(NR * 0.50) + 1], v[int(NR * 0.95) + 1], v[int(NR * 0.99) + 1], v[NR], NR }'
+}
+
+signup() {
+    curl -s -X POST "$BASE_URL/v1/auth/signup" -H "Content-Type: application/json" \
+        -d "{\"email\":\"$1@bulkhead.test\",\"password\":\"Bench-pass-1\",\"fullName\":\"Bench\",\"companyName\":\"Bench $1\",\"orgType\":\"enterprise\"}"
+}
+export -f signup
+export BASE_URL
+
+measure_reads() {
+    local label="$1" activity="$2"
+    : > "$WORK_DIR/users.txt"
+    : > "$WORK_DIR/rules.txt"
+    local i=0
+    while read -r org_id; do
+        i=$((i + 1))
+        curl -s -o /dev/null -w "%{time_total}\n" \
+            "$BASE_URL/v1/users/email/bench-miss-$RUN_ID-$activity-$i@bulkhead.test/exists" >> "$WORK_DIR/users.txt"
+        curl -s -o /dev/null -w "%{time_total}\n" \
+            "$BASE_URL/v1/agent-rules?orgId=$org_id&activityType=$activity" >> "$WORK_DIR/rules.txt"
+    done < "$WORK_DIR/orgs.txt"
+    printf "%-22s users/exists  " "$label"; percentiles "$WORK_DIR/users.txt"
+    printf "%-22s agent-rules   " "$label"; percentiles "$WORK_DIR/rules.txt"
+}
+
+signup_burst() {
+    seq 1 "$SIGNUPS" | xargs -P "$CONCURRENCY" -I{} curl -s -o /dev/null -w "%{http_code}\n" \
+        -X POST "$BASE_URL/v1/auth/signup" -H "Content-Type: application/json" \
+        -d "{\"email\":\"bench-$RUN_ID-{}@bulkhead.test\",\"password\":\"Bench-pass-1\",\"fullName\":\"Bench {}\",\"companyName\":\"Bench $RUN_ID {}\",\"orgType\":\"enterprise\"}" \
+        > "$WORK_DIR/signups.txt"
+}
+
+echo "Reads: $READS per endpoint   Signup burst: $SIGNUPS requests, $CONCURRENCY concurrent   $BASE_URL"
+
+# Two activity types with rules: one per phase, so no (org, activity) key is read twice
+ACTIVITIES=($(curl -s "$BASE_URL/v1/agent-rules/activity-types?industry=general" \
+    | grep -o '"activityType":"[^"]*"' | cut -d'"' -f4 | head -2))
+if [ "${#ACTIVITIES[@]}" -lt 2 ]; then
+    echo "Need at least two activity types in the general industry catalog" >&2
+    exit 1
+fi
+
+seq 1 "$READS" | xargs -P 8 -I{} bash -c 'signup "bench-read-'"$RUN_ID"'-{}"' \
+    | grep -o '"orgId":"[^"]*"' | cut -d'"' -f4 > "$WORK_DIR/orgs.txt"
+echo "Read orgs created: $(wc -l < "$WORK_DIR/orgs.txt")   activity types: ${ACTIVITIES[*]}"
+
+measure_reads "idle" "${ACTIVITIES[0]}"
+
+signup_burst &
+BURST_PID=$!
+sleep 2  # let the burst saturate the auth-write pool
+measure_reads "during signup burst" "${ACTIVITIES[1]}"
+wait "$BURST_PID"
+
+echo "Signup status codes: $(sort "$WORK_DIR/signups.txt" | uniq -c | tr '\n' ' ')"
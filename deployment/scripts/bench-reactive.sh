@@ -0,0 +1,73 @@
+#!/bin/bash
+# =============================================================================
+# quad-services - Blocking vs reactive agent rules load test
+# =============================================================================
+# Drives GET /agent-rules at increasing concurrency and reports throughput,
+# latency and the JVM's resident memory and live thread count, so the MVC/JPA
+# stack and the reactive profile (R2DBC) can be compared per concurrent
+# connection. Run once per stack against a locally started service:
+#
+#   SPRING_PROFILES_ACTIVE=dev          java -jar target/quad-services.jar ...
+#   SPRING_PROFILES_ACTIVE=dev,reactive java -jar target/quad-services.jar ...
+#
+# To measure the database path rather than the rules cache, start both with
+#   --quad.cache.agent-rules.max-bytes=1 --quad.rate-limit.enabled=false
+# (every response outweighs the budget, so every request queries Postgres).
+# Give both stacks the same number of DB connections, or the comparison measures pool
+# size (defaults: rules-read pool 3, R2DBC pool 16), e.g. for 16 on both:
+#   blocking: --quad.datasource.pools.rules-read.maximum-pool-size=16
+#   reactive: --quad.reactive.r2dbc.max-size=16
+# Each run starts with an unreported warm-up (WARMUP_SECONDS, default 10) at the first
+# concurrency level, so cold pools and the JIT do not count against either stack.
+#
+# Uses hey (https://github.com/rakyll/hey) when installed, otherwise HttpLoad.java next
+# to this script (JDK only, same output format).
+#
+# Usage:
+#   ./bench-reactive.sh <orgId> <jvmPid> [concurrencyLevels] [secondsPerLevel] [baseUrl]
+#   ./bench-reactive.sh 3f1c...e2 41234 "50 200 800" 30 http://localhost:14101
+# =============================================================================
+
+set -e
+
+ORG_ID="${1:?orgId required}"
+PID="${2:?pid of the quad-services JVM required}"
+LEVELS="${3:-50 200 800}"
+SECONDS_PER_LEVEL="${4:-30}"
+BASE_URL="${5:-http://localhost:8080}"
+URL="$BASE_URL/v1/agent-rules?orgId=$ORG_ID&activityType=add_api_endpoint"
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+if command -v hey >/dev/null; then
+    load() { hey -z "${3}s" -c "$2" "$1"; }
+else
+    load() { java "$SCRIPT_DIR/HttpLoad.java" "$1" "$2" "$3"; }
+fi
+
+jvm_stats() {
+    # RSS in MB and OS thread count of the JVM
+    ps -o rss=,nlwp= -p "$PID" | awk '{ printf "%d %d\n", $1 / 1024, $2 }'
+}
+
+load "$URL" "${LEVELS%% *}" "${WARMUP_SECONDS:-10}" > /dev/null
+read -r BASE_RSS BASE_THREADS < <(jvm_stats)
+echo "GET $URL"
+echo "after warm-up: rss ${BASE_RSS} MB, ${BASE_THREADS} threads"
+printf "%-6s %10s %9s %9s %9s %9s %9s %14s\n" "conc" "req/s" "p50 ms" "p99 ms" "errors" "rss MB" "threads" "KB/connection"
+
+for CONCURRENCY in $LEVELS; do
+    OUT="$(mktemp)"
+    load "$URL" "$CONCURRENCY" "$SECONDS_PER_LEVEL" > "$OUT" &
+    HEY_PID=$!
+    sleep $((SECONDS_PER_LEVEL * 2 / 3))
+    read -r RSS THREADS < <(jvm_stats)   # sampled under steady load
+    wait "$HEY_PID"
+
+    RPS=$(awk '/Requests\/sec/ { print $2 }' "$OUT")
+    P50=$(awk '/ 50% in/ { print $3 * 1000 }' "$OUT")
+    P99=$(awk '/ 99% in/ { print $3 * 1000 }' "$OUT")
+    ERRORS=$(awk '/^  \[[0-9]+\]/ && $1 != "[200]" && $1 != "[304]" { n += $2 } END { print n + 0 }' "$OUT")
+    PER_CONN=$(( (RSS - BASE_RSS) * 1024 / CONCURRENCY ))
+    printf "%-6s %10s %9s %9s %9s %9s %9s %14s\n" "$CONCURRENCY" "$RPS" "$P50" "$P99" "$ERRORS" "$RSS" "$THREADS" "$PER_CONN"
+    rm -f "$OUT"
+done
@@ -2,8 +2,10 @@ package com.quad.services;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class QuadServicesApplication {
     public static void main(String[] args) {
         SpringApplication.run(QuadServicesApplication.class, args);
@@ -0,0 +1,18 @@
+package com.quad.services.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Run the annotated bean's methods (type) or method against the workload's connection pool.
+ * Bound by BulkheadAspect; code not reached through a Spring proxy (cache loaders, own
+ * threads) uses WorkloadContext.call instead.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    Workload value();
+}
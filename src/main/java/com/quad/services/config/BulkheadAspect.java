@@ -0,0 +1,42 @@
+package com.quad.services.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds @Bulkhead workloads to the calling thread.
+ *
+ * Ordered outside the transaction interceptor so the workload is bound before the
+ * transaction's connection is fetched. Once a transaction holds a connection, nested
+ * calls into other workloads keep using it.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkheadAspect {
+
+    @Around("@within(com.quad.services.config.Bulkhead) || @annotation(com.quad.services.config.Bulkhead)")
+    public Object bind(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Bulkhead.class);
+        if (bulkhead == null) {
+            bulkhead = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Bulkhead.class);
+        }
+        if (bulkhead == null) {
+            return joinPoint.proceed();
+        }
+
+        Workload previous = WorkloadContext.bind(bulkhead.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+}
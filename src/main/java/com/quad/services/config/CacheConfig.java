@@ -1,8 +1,13 @@
 package com.quad.services.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,18 +18,33 @@ import java.util.concurrent.TimeUnit;
  * Cache Configuration for QUAD Services
  *
  * Caching Strategy:
- * 1. agentRules - Cache industry defaults + org customizations (5 min TTL)
+ * 1. agentRules - Cache industry defaults + org customizations (5 min refresh, 60 min max stale)
  *    - Rules don't change often
  *    - High hit rate expected
  *    - Saves database queries on every code generation request
+ *    - Built and registered by AgentRulesService (stale-while-revalidate loading cache)
+ *    - Own byte budget (quad.cache.agent-rules.max-bytes) with a per-org share cap
  *
  * 2. orgContext - Cache organization context for AI prompts (10 min TTL)
  *    - Industry, settings, preferences
  *    - Used in every AI call
+ *    - Populated by OrgContextService (immutable OrgContext per org)
  *
- * 3. userHistory - Cache recent user coding patterns (15 min TTL)
+ * 3. userHistory - Cache recent user coding patterns (15 min idle TTL)
  *    - For RAG context building
  *    - Personalized code suggestions
+ *    - One fixed-size ActivityRing per user, owned by UserActivityService
+ *      (own byte budget: quad.cache.user-history.max-bytes)
+ *
+ * The activity type catalog is not a cache: ActivityTypeCatalog holds a precomputed
+ * snapshot and refreshes it on a schedule.
+ *
+ * Sizing:
+ * - Caches are bounded by estimated bytes (CacheWeigher), not entry counts, so one
+ *   large industry response cannot silently blow the -Xmx512m heap
+ * - quad.cache.bytes.used / quad.cache.bytes.max gauges per cache, including the encoded
+ *   rules payloads (RulesPayloadCache, own budget) and the rule text dictionary (used only:
+ *   bounded by the catalog, one copy per distinct text)
  *
  * Cache Invalidation:
  * - On rule update: Evict agentRules cache for that org/industry
@@ -35,13 +55,20 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class CacheConfig {
 
+    @Value("${quad.cache.default.max-bytes:8388608}")
+    private long defaultMaxBytes;
+
+    @Value("${quad.cache.user-history.max-bytes:33554432}")
+    private long userHistoryMaxBytes;
+
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
 
-        // Default cache spec: 1000 entries, 5 minutes TTL
+        // Default cache spec: 8 MB estimated weight per cache, 5 minutes TTL
         cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000)
+                .maximumWeight(defaultMaxBytes)
+                .weigher(CacheWeigher::weigh)
                 .expireAfterWrite(5, TimeUnit.MINUTES)
                 .recordStats());  // Enable stats for monitoring
 
@@ -49,10 +76,62 @@ public class CacheConfig {
         cacheManager.setCacheNames(java.util.List.of(
                 "agentRules",      // Industry defaults + org customizations
                 "orgContext",      // Organization settings/context
-                "userHistory",     // User coding history for RAG
-                "activityTypes"    // Activity type catalog
+                "userHistory"      // User coding history for RAG
         ));
 
+        // Org context: 10 minutes TTL (evicted explicitly on org settings change)
+        cacheManager.registerCustomCache("orgContext", Caffeine.newBuilder()
+                .maximumWeight(defaultMaxBytes)
+                .weigher(CacheWeigher::weigh)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .recordStats()
+                .build());
+
+        // User history: kept while the user is active, 15 minutes after the last event or read
+        cacheManager.registerCustomCache("userHistory", Caffeine.newBuilder()
+                .maximumWeight(userHistoryMaxBytes)
+                .weigher(CacheWeigher::weigh)
+                .expireAfterAccess(15, TimeUnit.MINUTES)
+                .recordStats()
+                .build());
+
         return cacheManager;
     }
+
+    /**
+     * Bytes used vs budget for every weight-bounded cache.
+     */
+    @Bean
+    public MeterBinder cacheWeightMetrics(CacheManager cacheManager) {
+        return registry -> cacheManager.getCacheNames().forEach(name -> {
+            Gauge.builder("quad.cache.bytes.used", cacheManager, cm -> weightedSize(cm.getCache(name)))
+                    .description("Estimated heap bytes held by the cache")
+                    .tag("cache", name)
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("quad.cache.bytes.max", cacheManager, cm -> maximumWeight(cm.getCache(name)))
+                    .description("Byte budget of the cache")
+                    .tag("cache", name)
+                    .baseUnit("bytes")
+                    .register(registry);
+        });
+    }
+
+    private static double weightedSize(Cache cache) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().policy().eviction()
+                    .map(eviction -> (double) eviction.weightedSize().orElse(0))
+                    .orElse(0.0);
+        }
+        return 0;
+    }
+
+    private static double maximumWeight(Cache cache) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().policy().eviction()
+                    .map(eviction -> (double) eviction.getMaximum())
+                    .orElse(0.0);
+        }
+        return 0;
+    }
 }
@@ -0,0 +1,79 @@
+package com.quad.services.config;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Estimated heap footprint of cache entries, used to bound caches by bytes instead of entry count.
+ *
+ * Estimates assume a 64-bit JVM with compressed oops and compact (Latin-1) strings - the
+ * -Xmx512m Cloud Run setup. Values that know their own shape implement {@link Weighable};
+ * strings, collections, maps and boxed values are estimated structurally; anything else
+ * counts as a small fixed-size object.
+ */
+public final class CacheWeigher {
+
+    /**
+     * Implemented by cached values that can estimate their own retained size.
+     */
+    public interface Weighable {
+        long estimatedBytes();
+    }
+
+    private static final int ENTRY_OVERHEAD = 64;     // Caffeine node + hash table slot
+    private static final int OBJECT_OVERHEAD = 16;    // Object header + padding
+    private static final int REFERENCE = 4;           // Compressed oop
+    private static final int MAP_ENTRY = 36;          // HashMap.Node + table slot
+    private static final int DEFAULT_OBJECT = 64;
+
+    private CacheWeigher() {
+    }
+
+    /**
+     * Caffeine weigher: estimated bytes for a key/value pair, capped at Integer.MAX_VALUE.
+     */
+    public static int weigh(Object key, Object value) {
+        long bytes = ENTRY_OVERHEAD + estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Weighable weighable) {
+            return weighable.estimatedBytes();
+        }
+        if (value instanceof String string) {
+            return 2L * OBJECT_OVERHEAD + 8 + string.length();  // String + backing byte[]
+        }
+        if (value instanceof Collection<?> collection) {
+            long bytes = OBJECT_OVERHEAD * 2L + (long) REFERENCE * collection.size();
+            for (Object element : collection) {
+                bytes += estimate(element);
+            }
+            return bytes;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long bytes = OBJECT_OVERHEAD * 3L + (long) MAP_ENTRY * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                bytes += estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof int[] ints) {
+            return OBJECT_OVERHEAD + 4L * ints.length;
+        }
+        if (value instanceof byte[] bytes) {
+            return OBJECT_OVERHEAD + bytes.length;
+        }
+        if (value instanceof UUID) {
+            return OBJECT_OVERHEAD + 16;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return OBJECT_OVERHEAD + 8;
+        }
+        return DEFAULT_OBJECT;
+    }
+}
@@ -0,0 +1,140 @@
+package com.quad.services.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Connection pool topology: workload bulkheads and read replicas.
+ *
+ * Active when quad.datasource.bulkheads.enabled=true or quad.datasource.replica-urls is
+ * set. Otherwise Spring Boot's single auto-configured pool is used unchanged.
+ *
+ * LazyConnectionDataSourceProxy
+ *   -> ReplicaRoutingDataSource: @Transactional(readOnly = true) -> healthy replica
+ *      -> replicas: quad.datasource.replica-urls, one pool each (quad-replica-N)
+ *      -> primary: everything else, and reads when no replica is healthy
+ *         -> WorkloadRoutingDataSource (bulkheads enabled): one pool per Workload,
+ *            chosen by @Bulkhead / WorkloadContext (quad-rules-read, quad-user-read,
+ *            quad-auth-write, quad-default)
+ *         -> single pool quad-primary (bulkheads disabled)
+ *
+ * Every pool gets spring.datasource.hikari.* first, then its own overrides
+ * (quad.datasource.pools.<workload>.*, e.g. maximum-pool-size, connection-timeout,
+ * connection-init-sql for a statement_timeout), and publishes hikaricp.* metrics
+ * tagged with its pool name.
+ *
+ * Replica health check every quad.datasource.replica-health-check-ms; unhealthy replicas
+ * are skipped until they recover, with reads failing over to the primary.
+ */
+@Configuration
+@ConditionalOnExpression("'${quad.datasource.replica-urls:}' != '' or ${quad.datasource.bulkheads.enabled:false}")
+@Slf4j
+public class DataSourceConfig {
+
+    @Value("${quad.datasource.replica-urls:}")
+    private String replicaUrls;
+
+    @Value("${quad.datasource.replica-max-lag-ms:10000}")
+    private long replicaMaxLagMillis;
+
+    @Value("${quad.datasource.bulkheads.enabled:false}")
+    private boolean bulkheadsEnabled;
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             Environment environment,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        String primaryUrl = properties.determineUrl();
+
+        DataSource primary;
+        if (bulkheadsEnabled) {
+            Map<Workload, DataSource> pools = new EnumMap<>(Workload.class);
+            for (Workload workload : Workload.values()) {
+                HikariDataSource pool = buildPool(properties, binder, meterRegistry, primaryUrl,
+                        "quad-" + workload.poolKey(), "quad.datasource.pools." + workload.poolKey());
+                pool.setReadOnly(false);
+                pools.put(workload, pool);
+                log.info("Bulkhead pool {}: max {} connections, {}ms connection timeout",
+                        pool.getPoolName(), pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+            }
+            primary = new WorkloadRoutingDataSource(pools);
+        } else {
+            HikariDataSource pool = buildPool(properties, binder, meterRegistry, primaryUrl, "quad-primary", null);
+            pool.setReadOnly(false);
+            primary = pool;
+        }
+
+        List<String> urls = Arrays.stream(replicaUrls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "quad-replica-" + (i + 1);
+            HikariDataSource replica = buildPool(properties, binder, meterRegistry, urls.get(i), name, null);
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+        }
+
+        if (!replicas.isEmpty()) {
+            log.info("Read routing enabled: {} replica(s) behind primary", replicas.size());
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, replicaMaxLagMillis);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${quad.datasource.replica-health-check-ms:5000}")
+    public void checkReplicaHealth() {
+        if (routingDataSource != null) {
+            routingDataSource.checkHealth();
+        }
+    }
+
+    private HikariDataSource buildPool(DataSourceProperties properties, Binder binder,
+                                       ObjectProvider<MeterRegistry> meterRegistry,
+                                       String url, String poolName, String overridesPrefix) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        // Same defaults as the auto-configured pool, then this pool's own settings
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        if (overridesPrefix != null) {
+            binder.bind(overridesPrefix, Bindable.ofInstance(pool));
+        }
+        pool.setPoolName(poolName);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
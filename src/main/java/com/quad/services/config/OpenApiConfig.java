@@ -9,6 +9,7 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.Components;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 /**
  * OpenAPI (Swagger) Configuration
@@ -16,10 +17,13 @@ import org.springframework.context.annotation.Configuration;
  * Provides API documentation at /swagger-ui.html
  * OpenAPI JSON spec available at /v3/api-docs
  *
+ * Lazy: the spec is only needed when docs are requested, not on the cold-start path.
+ *
  * @author QUAD Platform
  * @since 1.0.0
  */
 @Configuration
+@Lazy
 public class OpenApiConfig {
 
     @Bean
@@ -0,0 +1,86 @@
+package com.quad.services.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Startup check for hot-path query plans.
+ *
+ * Runs EXPLAIN for the queries behind every repository hot path and logs the plan.
+ * Sequential scans are disabled for the duration of the check, so a plan that still
+ * contains "Seq Scan" means no usable index exists and is logged as a warning.
+ *
+ * Enabled with quad.db.explain-on-startup=true (DEV/QA).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "quad.db.explain-on-startup", havingValue = "true")
+public class QueryPlanInspector implements ApplicationRunner {
+
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("IndustryDefaultRepository.findByIndustryAndActivityType",
+                "SELECT * FROM quad_industry_defaults WHERE industry = 'general' AND activity_type = 'add_api_endpoint'");
+        HOT_QUERIES.put("UserRepository.findByEmail",
+                "SELECT * FROM quad_users WHERE lower(email) = lower('plan-check@quadframe.work')");
+        HOT_QUERIES.put("OrganizationRepository.existsBySlug",
+                "SELECT 1 FROM quad_organizations WHERE slug = 'plan-check'");
+        HOT_QUERIES.put("UserRepository.findMembersAfter",
+                "SELECT id, email, full_name, role, org_id, is_active, created_at FROM quad_users " +
+                "WHERE org_id = '00000000-0000-0000-0000-000000000000' AND created_at >= '2025-01-01' " +
+                "AND (created_at > '2025-01-01' OR id > '00000000-0000-0000-0000-000000000000') " +
+                "ORDER BY created_at, id LIMIT 51");
+        HOT_QUERIES.put("OrganizationRepository.findById",
+                "SELECT * FROM quad_organizations WHERE id = '00000000-0000-0000-0000-000000000000'");
+    }
+
+    private final DataSource dataSource;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                // SET LOCAL only lasts until the rollback below
+                statement.execute("SET LOCAL enable_seqscan = off");
+                for (Map.Entry<String, String> query : HOT_QUERIES.entrySet()) {
+                    explain(statement, query.getKey(), query.getValue());
+                }
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (Exception e) {
+            log.warn("Query plan check skipped: {}", e.getMessage());
+        }
+    }
+
+    private void explain(Statement statement, String name, String sql) throws Exception {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append("\n    ").append(rs.getString(1));
+            }
+        }
+
+        if (plan.indexOf("Seq Scan") >= 0) {
+            log.warn("Missing index for {} - plan falls back to a sequential scan:{}", name, plan);
+        } else {
+            log.info("Query plan for {}:{}", name, plan);
+        }
+    }
+}
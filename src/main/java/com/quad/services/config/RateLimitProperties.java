@@ -0,0 +1,42 @@
+package com.quad.services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limit budgets per route (quad.rate-limit.*).
+ *
+ * Each route has its own token bucket per key:
+ * - pattern: Ant path the route applies to (omit for routes checked in code, e.g. login email)
+ * - key: IP (client address), ORG (orgId request param) or EMAIL ({email} path variable / email param).
+ *   ORG and EMAIL are client-supplied, so a caller can rotate them for fresh buckets: use them
+ *   only in addition to an IP-keyed route (as auth-login-email does next to auth-login)
+ * - requests-per-minute: sustained refill rate
+ * - burst: requests allowed back-to-back before throttling starts
+ */
+@Component
+@ConfigurationProperties(prefix = "quad.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        private String pattern;
+        private String method;
+        private KeyType key = KeyType.IP;
+        private int requestsPerMinute = 60;
+        private int burst = 20;
+    }
+
+    public enum KeyType {
+        IP, ORG, EMAIL
+    }
+}
@@ -0,0 +1,55 @@
+package com.quad.services.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking agent rules read path (profile "reactive").
+ *
+ * One R2DBC connection pool (quad-r2dbc) against the same database as the JDBC pools,
+ * used only by ReactiveAgentRulesService. Spring Boot's R2DBC auto-configuration is
+ * excluded (it would replace the JPA transaction manager), so the pool is built here.
+ *
+ * Activate with SPRING_PROFILES_ACTIVE=<env>,reactive and set quad.reactive.r2dbc.url.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRulesConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool rulesConnectionPool(
+            @Value("${quad.reactive.r2dbc.url}") String url,
+            @Value("${quad.reactive.r2dbc.username:${spring.datasource.username}}") String username,
+            @Value("${quad.reactive.r2dbc.password:${spring.datasource.password}}") String password,
+            @Value("${quad.reactive.r2dbc.initial-size:4}") int initialSize,
+            @Value("${quad.reactive.r2dbc.max-size:16}") int maxSize,
+            @Value("${quad.reactive.r2dbc.max-acquire-ms:500}") long maxAcquireMillis) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("quad-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireMillis))
+                .maxIdleTime(Duration.ofMinutes(10))
+                .validationQuery("SELECT 1")
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient rulesDatabaseClient(ConnectionPool rulesConnectionPool) {
+        return DatabaseClient.create(rulesConnectionPool);
+    }
+}
@@ -0,0 +1,28 @@
+package com.quad.services.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request log volume controls (quad.logging.*), applied by RequestLog.
+ *
+ * - sample-rates: fraction (0.0-1.0) of successful requests logged per route; routes not
+ *   listed use default-sample-rate
+ * - expected-failures-per-minute: per route, how many expected failures (bad password,
+ *   duplicate email, ...) are logged each minute; the rest are counted and summarized
+ */
+@Component
+@ConfigurationProperties(prefix = "quad.logging")
+@Data
+public class RequestLogProperties {
+
+    private double defaultSampleRate = 1.0;
+
+    private Map<String, Double> sampleRates = new LinkedHashMap<>();
+
+    private int expectedFailuresPerMinute = 20;
+}
@@ -1,14 +1,26 @@
 package com.quad.services.config;
 
+import com.quad.services.security.ClientIpResolver;
+import com.quad.services.security.JwtAuthenticationFilter;
+import com.quad.services.security.JwtUtil;
+import com.quad.services.security.PlatformOperators;
+import com.quad.services.security.RateLimitFilter;
+import com.quad.services.security.RateLimiter;
+import com.quad.services.security.ServiceCredentialFilter;
+import com.quad.services.security.TokenRevocationList;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -26,8 +38,14 @@ public class SecurityConfig {
     @Value("${api.version.prefix:/v1}")
     private String apiVersionPrefix;
 
+    @Value("${quad.security.service-keys:}")
+    private String serviceKeys;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimiter rateLimiter, JwtUtil jwtUtil,
+                                                   TokenRevocationList tokenRevocationList,
+                                                   ClientIpResolver clientIpResolver,
+                                                   PlatformOperators platformOperators) throws Exception {
         http
                 // CSRF protection disabled for stateless JWT API
                 // Rationale: Clients authenticate via Authorization header, not cookies
@@ -40,13 +58,27 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(apiVersionPrefix + "/auth/**").permitAll()  // Authentication
+                        // Bulk lookup resolves emails across all orgs: backend callers and platform operators only
+                        .requestMatchers(HttpMethod.POST, apiVersionPrefix + "/users/lookup")
+                                .hasAnyRole(ServiceCredentialFilter.ROLE, PlatformOperators.ROLE)
+                        // JFR recordings cover every tenant's traffic: platform operators only
+                        .requestMatchers(apiVersionPrefix + "/admin/profiling/**").hasRole(PlatformOperators.ROLE)
                         .requestMatchers(apiVersionPrefix + "/users/**").permitAll()  // User lookup for OAuth
                         .requestMatchers(apiVersionPrefix + "/agent-rules/**").permitAll()  // Agent rules for VS Code extension
                         .requestMatchers("/health").permitAll()  // Health check (no version)
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html").permitAll()  // Swagger UI
                         .requestMatchers("/v3/api-docs/**").permitAll()  // OpenAPI JSON spec
+                        .requestMatchers("/actuator/health").permitAll()  // Cloud Run probes
                         .anyRequest().authenticated()
-                );
+                )
+                // No token (or an invalid one) on a protected route is 401, not 403
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                // Admission control runs before any auth work (token buckets per route, 429 on overflow)
+                .addFilterBefore(new RateLimitFilter(rateLimiter, clientIpResolver), UsernamePasswordAuthenticationFilter.class)
+                // Bearer access tokens -> AuthenticatedUser principal with ROLE_<role> (revoked families rejected)
+                .addFilterAfter(new JwtAuthenticationFilter(jwtUtil, tokenRevocationList, platformOperators), RateLimitFilter.class)
+                // X-Service-Key -> "service" principal with ROLE_SERVICE (gateway / other QUAD services)
+                .addFilterAfter(new ServiceCredentialFilter(serviceKeys), JwtAuthenticationFilter.class);
 
         return http.build();
     }
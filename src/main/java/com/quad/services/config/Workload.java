@@ -0,0 +1,30 @@
+package com.quad.services.config;
+
+/**
+ * Workload classes with their own primary connection pool (bulkheads).
+ * Pool settings: quad.datasource.pools.<poolKey>.* (any HikariCP property).
+ */
+public enum Workload {
+
+    /** Latency-critical agent rules loads (cache misses and refreshes). */
+    RULES_READ("rules-read"),
+
+    /** User lookups (OAuth account linking, existence checks, member listing). */
+    USER_READ("user-read"),
+
+    /** Signup, login, token and OTP transactions. */
+    AUTH_WRITE("auth-write"),
+
+    /** Everything else: schedulers, batch writers, admin endpoints, Flyway. */
+    DEFAULT("default");
+
+    private final String poolKey;
+
+    Workload(String poolKey) {
+        this.poolKey = poolKey;
+    }
+
+    public String poolKey() {
+        return poolKey;
+    }
+}
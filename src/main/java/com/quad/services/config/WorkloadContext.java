@@ -0,0 +1,49 @@
+package com.quad.services.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Workload class of the current thread, read by WorkloadRoutingDataSource when a
+ * connection is fetched.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.DEFAULT;
+    }
+
+    /**
+     * Run with the workload bound, restoring the previous one afterwards.
+     */
+    public static <T> T call(Workload workload, Supplier<T> action) {
+        Workload previous = bind(workload);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Bind a workload; returns the previous binding (possibly null) for restore().
+     */
+    static Workload bind(Workload workload) {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(Workload previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.quad.services.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Primary connections from the pool of the current thread's workload class (bulkheads):
+ * exhausting one class's pool makes only that class wait (up to its connection-timeout),
+ * never the others. Workloads without a pool of their own use the DEFAULT pool.
+ */
+public class WorkloadRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final Map<Workload, DataSource> pools;
+    private final DataSource defaultPool;
+
+    public WorkloadRoutingDataSource(Map<Workload, DataSource> pools) {
+        this.pools = new EnumMap<>(pools);
+        this.defaultPool = pools.get(Workload.DEFAULT);
+        if (defaultPool == null) {
+            throw new IllegalArgumentException("A DEFAULT pool is required");
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pools.getOrDefault(WorkloadContext.current(), defaultPool).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return pools.getOrDefault(WorkloadContext.current(), defaultPool).getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource pool : pools.values()) {
+            if (pool instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.ActivityEventBatch;
+import com.quad.services.dto.ActivityTypeCount;
+import com.quad.services.security.AuthenticatedUser;
+import com.quad.services.service.UserActivityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activity Controller
+ *
+ * Ingests Story Agent (VS Code Extension) activity events and serves the caller's
+ * recent activity profile. Bearer token required; events are attributed to the caller.
+ */
+@RestController
+@RequestMapping("${api.version.prefix:/v1}/activity")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Activity", description = "Extension activity events and per-user history")
+public class ActivityController {
+
+    private final UserActivityService userActivityService;
+
+    @Operation(
+            summary = "Record activity events",
+            description = "Accepts up to 500 events. Events are buffered in memory and persisted in batches, " +
+                    "so the response does not wait for the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Events accepted", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid events", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content)
+    })
+    @PostMapping("/events")
+    public ResponseEntity<?> recordEvents(
+            @AuthenticationPrincipal AuthenticatedUser caller,
+            @Valid @RequestBody ActivityEventBatch batch
+    ) {
+        int notPersisted = userActivityService.record(caller.userId(), caller.orgId(), batch.getEvents());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("accepted", batch.getEvents().size(), "notPersisted", notPersisted));
+    }
+
+    @Operation(
+            summary = "Most frequent recent activity types",
+            description = "Caller's most frequent activity types within the last `days`, from in-memory history."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Activity types, most frequent first",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ActivityTypeCount.class)))
+            ),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content)
+    })
+    @GetMapping("/me/top-types")
+    public ResponseEntity<?> topActivityTypes(
+            @AuthenticationPrincipal AuthenticatedUser caller,
+            @Parameter(description = "Look-back window in days", example = "7")
+            @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Maximum number of activity types", example = "5")
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        if (days < 1 || limit < 1 || limit > 50) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "days must be positive and limit between 1 and 50"));
+        }
+
+        List<ActivityTypeCount> top = userActivityService.topActivityTypes(caller.userId(), Duration.ofDays(days), limit);
+        return ResponseEntity.ok(top);
+    }
+}
@@ -1,7 +1,16 @@
 package com.quad.services.controller;
 
+import com.quad.services.dto.ActivityTypeSummary;
 import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.dto.PromptRenderResponse;
+import com.quad.services.exception.BackendUnavailableException;
+import com.quad.services.exception.OrganizationNotFoundException;
+import com.quad.services.exception.TokenBudgetTooSmallException;
+import com.quad.services.logging.RequestLog;
+import com.quad.services.service.ActivityTypeCatalog;
 import com.quad.services.service.AgentRulesService;
+import com.quad.services.service.PromptRenderer;
+import com.quad.services.service.RulesPayloadCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,9 +21,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -35,6 +49,7 @@ import java.util.UUID;
  * @since 1.0.0
  */
 @RestController
+@Profile("!reactive")  // replaced by ReactiveAgentRulesController in the reactive profile
 @RequestMapping("${api.version.prefix:/v1}/agent-rules")
 @RequiredArgsConstructor
 @Slf4j
@@ -43,6 +58,13 @@ import java.util.UUID;
 public class AgentRulesController {
 
     private final AgentRulesService agentRulesService;
+    private final RulesPayloadCache rulesPayloadCache;
+    private final ActivityTypeCatalog activityTypeCatalog;
+    private final PromptRenderer promptRenderer;
+    private final RequestLog requestLog;
+
+    @Value("${quad.prompts.max-token-budget:32000}")
+    private int maxTokenBudget;
 
     @Operation(
             summary = "Get coding rules for an organization and activity",
@@ -55,10 +77,20 @@ public class AgentRulesController {
                     description = "Rules retrieved successfully",
                     content = @Content(schema = @Schema(implementation = AgentRulesResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unknown activity type (see /activity-types)",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Organization not found",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Rules backend unavailable and no cached rules for this key",
+                    content = @Content
             )
     })
     @SecurityRequirement(name = "")  // Publicly accessible for VS Code extension
@@ -68,28 +100,48 @@ public class AgentRulesController {
             @RequestParam("orgId") UUID orgId,
 
             @Parameter(description = "Activity type (e.g., add_api_endpoint, create_ui_screen)", required = true)
-            @RequestParam("activityType") String activityType
+            @RequestParam("activityType") String activityType,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
+        if (!activityTypeCatalog.isKnownActivityType(activityType)) {
+            return unknownActivityType(activityType);
+        }
+
         try {
-            log.info("Fetching rules for org: {}, activity: {}", orgId, activityType);
+            requestLog.sampled("agent-rules", "Fetching rules for org: {}, activity: {}", orgId, activityType);
             AgentRulesResponse response = agentRulesService.getMergedRules(orgId, activityType);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            log.error("Error fetching rules: {}", e.getMessage());
-            return ResponseEntity.status(404)
+            return rulesPayloadCache.toResponse(response, acceptEncoding, ifNoneMatch);
+        } catch (OrganizationNotFoundException e) {
+            requestLog.expectedFailure("agent-rules", "Error fetching rules: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
+        } catch (BackendUnavailableException e) {
+            return backendUnavailable(e);
         }
     }
 
     @Operation(
             summary = "Get rules by industry (without org lookup)",
-            description = "Returns industry default rules directly. Useful for testing or when industry is known."
+            description = "Returns industry default rules directly. Useful for testing or when industry is known. " +
+                    "An industry without rules for the activity type gets empty DO / DONT lists."
     )
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
                     description = "Rules retrieved successfully",
                     content = @Content(schema = @Schema(implementation = AgentRulesResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Unknown activity type (see /activity-types)",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Rules backend unavailable and no cached rules for this key",
+                    content = @Content
             )
     })
     @SecurityRequirement(name = "")
@@ -99,10 +151,108 @@ public class AgentRulesController {
             @RequestParam("industry") String industry,
 
             @Parameter(description = "Activity type", required = true)
-            @RequestParam("activityType") String activityType
+            @RequestParam("activityType") String activityType,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        log.info("Fetching rules for industry: {}, activity: {}", industry, activityType);
-        AgentRulesResponse response = agentRulesService.getRulesByIndustry(industry, activityType);
-        return ResponseEntity.ok(response);
+        if (!activityTypeCatalog.isKnownActivityType(activityType)) {
+            return unknownActivityType(activityType);
+        }
+
+        try {
+            requestLog.sampled("agent-rules", "Fetching rules for industry: {}, activity: {}", industry, activityType);
+            AgentRulesResponse response = agentRulesService.getRulesByIndustry(industry, activityType);
+            return rulesPayloadCache.toResponse(response, acceptEncoding, ifNoneMatch);
+        } catch (BackendUnavailableException e) {
+            return backendUnavailable(e);
+        }
+    }
+
+    @Operation(
+            summary = "Render the code-generation prompt",
+            description = "Merged rules + organization context rendered into final prompt text. " +
+                    "Lowest-priority rules are dropped until the prompt fits tokenBudget (approximate token count)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Prompt rendered",
+                    content = @Content(schema = @Schema(implementation = PromptRenderResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Unknown activity type, invalid budget, or budget smaller than the template", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Organization not found", content = @Content),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Rules backend unavailable and no cached rules for this key",
+                    content = @Content
+            )
+    })
+    @SecurityRequirement(name = "")  // Publicly accessible for VS Code extension
+    @GetMapping("/prompt")
+    public ResponseEntity<?> renderPrompt(
+            @Parameter(description = "Organization UUID", required = true)
+            @RequestParam("orgId") UUID orgId,
+
+            @Parameter(description = "Activity type", required = true)
+            @RequestParam("activityType") String activityType,
+
+            @Parameter(description = "Maximum prompt size in (approximate) tokens", example = "2000")
+            @RequestParam(value = "tokenBudget", defaultValue = "2000") int tokenBudget
+    ) {
+        if (!activityTypeCatalog.isKnownActivityType(activityType)) {
+            return unknownActivityType(activityType);
+        }
+        if (tokenBudget < 1 || tokenBudget > maxTokenBudget) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "tokenBudget must be between 1 and " + maxTokenBudget));
+        }
+
+        try {
+            return ResponseEntity.ok(promptRenderer.render(orgId, activityType, tokenBudget));
+        } catch (OrganizationNotFoundException e) {
+            requestLog.expectedFailure("agent-rules-prompt", "Error rendering prompt: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (TokenBudgetTooSmallException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage(), "minimumTokenBudget", e.getRequiredTokens()));
+        } catch (BackendUnavailableException e) {
+            return backendUnavailable(e);
+        }
+    }
+
+    @Operation(
+            summary = "List activity types per industry",
+            description = "Catalog of valid activity types with their rule counts, grouped by industry. " +
+                    "Precomputed in memory; use it instead of guessing activity type names."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog retrieved successfully", content = @Content)
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/activity-types")
+    public ResponseEntity<Map<String, List<ActivityTypeSummary>>> getActivityTypes(
+            @Parameter(description = "Restrict to one industry")
+            @RequestParam(value = "industry", required = false) String industry
+    ) {
+        if (industry != null) {
+            return ResponseEntity.ok(Map.of(industry, activityTypeCatalog.forIndustry(industry)));
+        }
+        return ResponseEntity.ok(activityTypeCatalog.byIndustry());
+    }
+
+    private ResponseEntity<?> unknownActivityType(String activityType) {
+        requestLog.expectedFailure("agent-rules", "Rejected unknown activity type: {}", activityType);
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", "Unknown activity type: " + activityType,
+                        "catalog", "GET /agent-rules/activity-types"));
+    }
+
+    private ResponseEntity<?> backendUnavailable(BackendUnavailableException e) {
+        log.error("Rules backend unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((e.getRetryAfterMillis() + 999) / 1000))
+                .body(Map.of("error", "Rules temporarily unavailable, retry shortly"));
     }
 }
@@ -0,0 +1,96 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.AuthEvent;
+import com.quad.services.security.AuthenticatedUser;
+import com.quad.services.service.AuthEventLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Audit Controller
+ *
+ * Security reporting for organization owners and admins (Bearer token required).
+ * Results are scoped to the caller's organization.
+ */
+@RestController
+@RequestMapping("${api.version.prefix:/v1}/audit")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Audit", description = "Security audit endpoints")
+public class AuditController {
+
+    private static final Set<String> AUDIT_ROLES = Set.of("OWNER", "ADMIN");
+
+    private final AuthEventLog authEventLog;
+
+    @Value("${quad.audit.retention-days:90}")
+    private int retentionDays;
+
+    @Operation(
+            summary = "Recent authentication events",
+            description = "Signups, logins and email verifications of the caller's organization, newest first. " +
+                    "Events become visible within about a second (batched writes)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Events",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = AuthEvent.class)))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid days, limit or type", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Caller is not an owner or admin", content = @Content)
+    })
+    @GetMapping("/auth-events")
+    public ResponseEntity<?> authEvents(
+            @AuthenticationPrincipal AuthenticatedUser caller,
+            @Parameter(description = "Look back this many days", example = "7")
+            @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Only this event type (SIGNUP, LOGIN, LOGIN_FAILED, EMAIL_VERIFIED, VERIFICATION_FAILED)")
+            @RequestParam(required = false) String type,
+            @Parameter(description = "Maximum events returned", example = "100")
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (!AUDIT_ROLES.contains(caller.role()) || caller.orgId() == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Owner or admin role required"));
+        }
+        if (days < 1 || days > retentionDays || limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "days must be 1-" + retentionDays + " and limit 1-1000"));
+        }
+
+        AuthEvent.Type eventType;
+        try {
+            eventType = type != null ? AuthEvent.Type.valueOf(type.toUpperCase()) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown event type: " + type));
+        }
+
+        try {
+            return ResponseEntity.ok(authEventLog.recentForOrg(caller.orgId(),
+                    LocalDateTime.now().minusDays(days), eventType, limit));
+        } catch (Exception e) {
+            log.error("Error reading auth events for org {}: {}", caller.orgId(), e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to read audit events"));
+        }
+    }
+}
@@ -1,9 +1,21 @@
 package com.quad.services.controller;
 
+import com.quad.services.dto.AuthEvent;
 import com.quad.services.dto.AuthResponse;
 import com.quad.services.dto.LoginRequest;
+import com.quad.services.dto.RefreshTokenRequest;
 import com.quad.services.dto.SignupRequest;
+import com.quad.services.dto.VerifyOtpRequest;
+import com.quad.services.exception.IdempotencyKeyMismatchException;
+import com.quad.services.exception.InvalidRefreshTokenException;
+import com.quad.services.exception.OtpVerificationException;
+import com.quad.services.logging.RequestLog;
+import com.quad.services.security.ClientIpResolver;
+import com.quad.services.security.RateLimiter;
+import com.quad.services.service.AuthEventLog;
 import com.quad.services.service.AuthService;
+import com.quad.services.service.SignupCoordinator;
+import com.quad.services.service.TokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,9 +23,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -38,11 +52,18 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final RateLimiter rateLimiter;
+    private final TokenService tokenService;
+    private final SignupCoordinator signupCoordinator;
+    private final RequestLog requestLog;
+    private final AuthEventLog authEventLog;
+    private final ClientIpResolver clientIpResolver;
 
     @Operation(
             summary = "Create new organization and user account",
             description = "Register a new organization with first admin user. Creates both organization and user records. " +
-                    "Returns JWT token for immediate authentication."
+                    "Returns JWT token for immediate authentication. Send an Idempotency-Key header to make " +
+                    "retries safe: a repeated request with the same key returns the original response."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -54,17 +75,30 @@ public class AuthController {
                     responseCode = "400",
                     description = "Invalid request data or email already exists",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key already used for a different request",
+                    content = @Content
             )
     })
     @SecurityRequirement(name = "")  // Publicly accessible endpoint
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@Valid @RequestBody SignupRequest request) {
+    public ResponseEntity<?> signup(@Valid @RequestBody SignupRequest request,
+                                    @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                    HttpServletRequest httpRequest) {
         try {
-            log.info("Signup request for email: {}", request.getEmail());
-            AuthResponse response = authService.signup(request);
+            requestLog.sampled("auth-signup", "Signup request for email: {}", request.getEmail());
+            AuthResponse response = signupCoordinator.signup(request, idempotencyKey);
+            authEventLog.record(AuthEvent.of(AuthEvent.Type.SIGNUP, response.getUserId(), response.getOrgId(),
+                    response.getEmail(), clientIpResolver.clientIp(httpRequest),
+                    Boolean.TRUE.equals(response.getRequiresVerification()) ? "verification pending" : null));
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IdempotencyKeyMismatchException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
-            log.error("Signup error: {}", e.getMessage(), e);
+            logFailure("auth-signup", "Signup failed", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
         }
@@ -72,8 +106,9 @@ public class AuthController {
 
     @Operation(
             summary = "Authenticate user and get JWT token",
-            description = "Login with email and password. Returns JWT token valid for 24 hours. " +
-                    "Use the token in the Authorization header for authenticated endpoints."
+            description = "Login with email and password. Returns a short-lived JWT access token (15 minutes) " +
+                    "and a refresh token. Use the access token in the Authorization header for authenticated " +
+                    "endpoints and POST /auth/refresh to get a new one."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -85,22 +120,130 @@ public class AuthController {
                     responseCode = "401",
                     description = "Invalid credentials",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many login attempts for this email",
+                    content = @Content
             )
     })
     @SecurityRequirement(name = "")  // Publicly accessible endpoint
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // Per-email budget (the per-IP budget is enforced by RateLimitFilter)
+        long retryAfterMillis = rateLimiter.tryAcquire("auth-login-email", request.getEmail().toLowerCase());
+        if (retryAfterMillis > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf((retryAfterMillis + 999) / 1000))
+                    .body(Map.of("error", "Too many login attempts, try again later"));
+        }
+
         try {
-            log.info("Login request for email: {}", request.getEmail());
+            requestLog.sampled("auth-login", "Login request for email: {}", request.getEmail());
             AuthResponse response = authService.login(request);
+            authEventLog.record(AuthEvent.of(AuthEvent.Type.LOGIN, response.getUserId(), response.getOrgId(),
+                    response.getEmail(), clientIpResolver.clientIp(httpRequest), null));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            logFailure("auth-login", "Login failed", e);
+            authEventLog.record(AuthEvent.of(AuthEvent.Type.LOGIN_FAILED, null, null,
+                    request.getEmail().toLowerCase(), clientIpResolver.clientIp(httpRequest), e.getMessage()));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Verify emailed code",
+            description = "Complete passwordless signup or email re-verification with the 6-digit code sent by " +
+                    "POST /auth/signup. Codes are single use and expire after 10 minutes. Returns tokens like login."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Email verified",
+                    content = @Content(schema = @Schema(implementation = AuthResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Code invalid or expired",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many wrong codes, request a new one",
+                    content = @Content
+            )
+    })
+    @SecurityRequirement(name = "")  // Publicly accessible endpoint
+    @PostMapping("/verify-otp")
+    public ResponseEntity<?> verifyOtp(@Valid @RequestBody VerifyOtpRequest request, HttpServletRequest httpRequest) {
+        try {
+            AuthResponse response = authService.verifyOtp(request);
+            authEventLog.record(AuthEvent.of(AuthEvent.Type.EMAIL_VERIFIED, response.getUserId(), response.getOrgId(),
+                    response.getEmail(), clientIpResolver.clientIp(httpRequest), null));
             return ResponseEntity.ok(response);
+        } catch (OtpVerificationException e) {
+            authEventLog.record(AuthEvent.of(AuthEvent.Type.VERIFICATION_FAILED, null, null,
+                    request.getEmail().toLowerCase(), clientIpResolver.clientIp(httpRequest), e.getReason().name()));
+            HttpStatus status = e.getReason() == OtpVerificationException.Reason.TOO_MANY_ATTEMPTS
+                    ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.UNAUTHORIZED;
+            return ResponseEntity.status(status).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
-            log.error("Login error: {}", e.getMessage(), e);
+            logFailure("auth-verify-otp", "Verification failed", e);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", e.getMessage()));
         }
     }
 
+    @Operation(
+            summary = "Refresh the access token",
+            description = "Exchange a refresh token for a new access token and a new refresh token. " +
+                    "Refresh tokens are single use; replaying one revokes every token of that login."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Tokens rotated",
+                    content = @Content(schema = @Schema(implementation = AuthResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Refresh token invalid, expired, revoked or already used",
+                    content = @Content
+            )
+    })
+    @SecurityRequirement(name = "")  // Publicly accessible endpoint
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        try {
+            TokenService.IssuedTokens tokens = tokenService.refresh(request.getRefreshToken());
+            return ResponseEntity.ok(AuthResponse.builder()
+                    .success(true)
+                    .token(tokens.accessToken())
+                    .refreshToken(tokens.refreshToken())
+                    .build());
+        } catch (InvalidRefreshTokenException e) {
+            requestLog.expectedFailure("auth-refresh", "Refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(
+            summary = "Logout",
+            description = "Revoke the refresh token's login session: its refresh tokens and outstanding access tokens."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Session revoked", content = @Content)
+    })
+    @SecurityRequirement(name = "")  // Publicly accessible endpoint
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        tokenService.logout(request.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(
             summary = "Health check endpoint",
             description = "Check if the authentication service is running and healthy"
@@ -121,4 +264,16 @@ public class AuthController {
                 "timestamp", System.currentTimeMillis()
         ));
     }
+
+    /**
+     * Business rejections (bad password, duplicate email, ...) are expected: one rate-limited
+     * line, no stack trace. Only infrastructure failures get the full trace.
+     */
+    private void logFailure(String route, String message, RuntimeException e) {
+        if (e instanceof DataAccessException) {
+            log.error("{}: {}", message, e.getMessage(), e);
+        } else {
+            requestLog.expectedFailure(route, message + ": {}", e.getMessage());
+        }
+    }
 }
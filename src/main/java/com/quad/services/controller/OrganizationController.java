@@ -0,0 +1,90 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.MemberPage;
+import com.quad.services.security.AuthenticatedUser;
+import com.quad.services.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Organization Controller
+ *
+ * Organization-scoped reads for authenticated members (Bearer token required).
+ * Callers can only read their own organization (orgId claim in the token); service-key
+ * callers have no organization and are refused.
+ */
+@RestController
+@RequestMapping("${api.version.prefix:/v1}/organizations")
+@Slf4j
+@Tag(name = "Organizations", description = "Organization membership endpoints")
+public class OrganizationController {
+
+    private final UserService userService;
+    private final int maxPageSize;
+
+    public OrganizationController(UserService userService,
+                                  @Value("${quad.organizations.members.max-page-size:200}") int maxPageSize) {
+        this.userService = userService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Operation(
+            summary = "List organization members",
+            description = "Members of the organization, oldest first, with keyset pagination. " +
+                    "Pass nextCursor from the previous page as cursor to continue; page cost is constant at any depth."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of members",
+                    content = @Content(schema = @Schema(implementation = MemberPage.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Not a member of this organization", content = @Content)
+    })
+    @GetMapping("/{orgId}/members")
+    public ResponseEntity<?> listMembers(
+            @AuthenticationPrincipal AuthenticatedUser caller,
+            @Parameter(description = "Organization UUID", required = true)
+            @PathVariable UUID orgId,
+            @Parameter(description = "nextCursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size", example = "50")
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        // caller is null for principals that are not members, e.g. service-key callers
+        if (caller == null || !orgId.equals(caller.orgId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Not a member of this organization"));
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limit must be between 1 and " + maxPageSize));
+        }
+
+        try {
+            return ResponseEntity.ok(userService.listMembers(orgId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error listing members for org {}: {}", orgId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to list members"));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.quad.services.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quad.services.dto.ProfileReport;
+import com.quad.services.exception.ProfilingUnavailableException;
+import com.quad.services.security.AuthenticatedUser;
+import com.quad.services.security.PlatformOperators;
+import com.quad.services.service.ProfilingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Profiling Controller
+ *
+ * On-demand JFR profiling of the instance that serves the request (Bearer token required).
+ * Off unless quad.profiling.enabled=true, and restricted to platform operators
+ * (ROLE_PLATFORM_OPERATOR, granted by user ID from quad.platform.operator-user-ids):
+ * recordings cover every tenant's traffic, so organization owners and admins are not enough.
+ *
+ * On Cloud Run, consecutive requests may land on different instances; use format=zip to
+ * get the report and the raw .jfr from the same session in one response.
+ */
+@RestController
+@RequestMapping("${api.version.prefix:/v1}/admin/profiling")
+@Slf4j
+@Tag(name = "Profiling", description = "On-demand JFR profiling (platform operators)")
+public class ProfilingController {
+
+    private static final String RECORDING_FILE = "recording.jfr";
+
+    private final ProfilingService profilingService;
+    private final ObjectMapper objectMapper;
+    private final PlatformOperators platformOperators;
+    private final boolean enabled;
+    private final int maxDurationSeconds;
+
+    public ProfilingController(ProfilingService profilingService,
+                               ObjectMapper objectMapper,
+                               PlatformOperators platformOperators,
+                               @Value("${quad.profiling.enabled:false}") boolean enabled,
+                               @Value("${quad.profiling.max-duration-seconds:120}") int maxDurationSeconds) {
+        this.profilingService = profilingService;
+        this.objectMapper = objectMapper;
+        this.platformOperators = platformOperators;
+        this.enabled = enabled;
+        this.maxDurationSeconds = maxDurationSeconds;
+    }
+
+    @Operation(
+            summary = "Profile this instance",
+            description = "Runs a Java Flight Recorder session for the given number of seconds and returns a summary: " +
+                    "top CPU methods, allocation hot spots, lock contention and GC pauses. The request blocks for " +
+                    "the whole session. format=zip returns report.json and recording.jfr together."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Session finished",
+                    content = @Content(schema = @Schema(implementation = ProfileReport.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid seconds, settings or format", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Caller is not a platform operator", content = @Content),
+            @ApiResponse(responseCode = "409", description = "A session is already running", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Cooling down after the last session", content = @Content),
+            @ApiResponse(responseCode = "503", description = "CPU load too high to profile safely", content = @Content)
+    })
+    @PostMapping("/recordings")
+    public ResponseEntity<?> profile(
+            @AuthenticationPrincipal AuthenticatedUser caller,
+            @Parameter(description = "Recording length in seconds", example = "30")
+            @RequestParam(defaultValue = "30") int seconds,
+            @Parameter(description = "JFR settings: default (~1% overhead) or profile (~2%, if allowed)")
+            @RequestParam(defaultValue = "default") String settings,
+            @Parameter(description = "json (report only) or zip (report.json + recording.jfr)")
+            @RequestParam(defaultValue = "json") String format
+    ) {
+        ResponseEntity<?> denied = checkAccess(caller);
+        if (denied != null) {
+            return denied;
+        }
+        if (seconds < 1 || seconds > maxDurationSeconds) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "seconds must be 1-" + maxDurationSeconds));
+        }
+        if (!settings.equals("default") && !settings.equals("profile")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "settings must be default or profile"));
+        }
+        if (!format.equals("json") && !format.equals("zip")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "format must be json or zip"));
+        }
+
+        ProfileReport report;
+        try {
+            report = profilingService.profile(seconds, settings.equals("profile"), "user " + caller.userId());
+        } catch (ProfilingUnavailableException e) {
+            HttpStatus status = switch (e.getReason()) {
+                case BUSY -> HttpStatus.CONFLICT;
+                case COOLDOWN -> HttpStatus.TOO_MANY_REQUESTS;
+                case OVERLOADED -> HttpStatus.SERVICE_UNAVAILABLE;
+            };
+            return ResponseEntity.status(status)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Profiling was interrupted"));
+        } catch (Exception e) {
+            log.error("Profiling session failed: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Profiling failed"));
+        }
+
+        if (format.equals("json")) {
+            return ResponseEntity.ok(report);
+        }
+        Path jfrFile = profilingService.latestRecording().orElse(null);
+        if (jfrFile == null) {
+            return ResponseEntity.status(HttpStatus.GONE).body(Map.of("error", "Recording is no longer available"));
+        }
+        StreamingResponseBody body = out -> {
+            try (ZipOutputStream zip = new ZipOutputStream(out)) {
+                zip.putNextEntry(new ZipEntry("report.json"));
+                zip.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(report));
+                zip.closeEntry();
+                zip.putNextEntry(new ZipEntry(RECORDING_FILE));
+                Files.copy(jfrFile, zip);
+                zip.closeEntry();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("profile-" + report.id() + ".zip").build().toString())
+                .body(body);
+    }
+
+    @Operation(summary = "Last profiling report", description = "Report of the last session on this instance")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Report",
+                    content = @Content(schema = @Schema(implementation = ProfileReport.class))
+            ),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Caller is not a platform operator", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No session on this instance", content = @Content)
+    })
+    @GetMapping("/recordings/latest")
+    public ResponseEntity<?> latestReport(@AuthenticationPrincipal AuthenticatedUser caller) {
+        ResponseEntity<?> denied = checkAccess(caller);
+        if (denied != null) {
+            return denied;
+        }
+        return profilingService.latestReport()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No profiling session on this instance")));
+    }
+
+    @Operation(summary = "Last raw recording", description = "The .jfr file of the last session on this instance " +
+            "(open with JDK Mission Control or `jfr print`)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "JFR file", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid token", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Caller is not a platform operator", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No session on this instance", content = @Content)
+    })
+    @GetMapping("/recordings/latest/jfr")
+    public ResponseEntity<?> latestRecording(@AuthenticationPrincipal AuthenticatedUser caller) {
+        ResponseEntity<?> denied = checkAccess(caller);
+        if (denied != null) {
+            return denied;
+        }
+        return profilingService.latestRecording()
+                .<ResponseEntity<?>>map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(RECORDING_FILE).build().toString())
+                        .body(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No profiling session on this instance")));
+    }
+
+    /**
+     * 404 when profiling is switched off, 403 unless the caller is a platform operator.
+     * SecurityConfig already requires ROLE_PLATFORM_OPERATOR; checked again by user ID here.
+     */
+    private ResponseEntity<?> checkAccess(AuthenticatedUser caller) {
+        if (!enabled) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Profiling is disabled"));
+        }
+        if (caller == null || !platformOperators.isOperator(caller.userId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Platform operator access required"));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,220 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.ActivityTypeSummary;
+import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.dto.PromptRenderResponse;
+import com.quad.services.exception.BackendUnavailableException;
+import com.quad.services.exception.OrganizationNotFoundException;
+import com.quad.services.exception.TokenBudgetTooSmallException;
+import com.quad.services.logging.RequestLog;
+import com.quad.services.service.ActivityTypeCatalog;
+import com.quad.services.service.PromptRenderer;
+import com.quad.services.service.ReactiveAgentRulesService;
+import com.quad.services.service.RulesPayloadCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Agent Rules Controller, non-blocking variant (profile "reactive").
+ *
+ * Same endpoints and responses as AgentRulesController, which is disabled in this profile.
+ * Rule reads return Mono: the servlet request is suspended (async) while R2DBC queries
+ * run, so a cache miss holds no request thread. Prompt rendering still uses the blocking
+ * AgentRulesService and runs on the bounded elastic scheduler.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("${api.version.prefix:/v1}/agent-rules")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Agent Rules", description = "Coding rules for AI code generation (Story Agent)")
+public class ReactiveAgentRulesController {
+
+    private final ReactiveAgentRulesService reactiveAgentRulesService;
+    private final RulesPayloadCache rulesPayloadCache;
+    private final ActivityTypeCatalog activityTypeCatalog;
+    private final PromptRenderer promptRenderer;
+    private final RequestLog requestLog;
+
+    @Value("${quad.prompts.max-token-budget:32000}")
+    private int maxTokenBudget;
+
+    @Operation(
+            summary = "Get coding rules for an organization and activity",
+            description = "Returns merged rules (industry defaults + org customizations) that guide AI code generation."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rules retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AgentRulesResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Unknown activity type (see /activity-types)", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Organization not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Rules backend unavailable", content = @Content)
+    })
+    @SecurityRequirement(name = "")  // Publicly accessible for VS Code extension
+    @GetMapping
+    public Mono<ResponseEntity<?>> getRules(
+            @Parameter(description = "Organization UUID", required = true)
+            @RequestParam("orgId") UUID orgId,
+
+            @Parameter(description = "Activity type (e.g., add_api_endpoint, create_ui_screen)", required = true)
+            @RequestParam("activityType") String activityType,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (!activityTypeCatalog.isKnownActivityType(activityType)) {
+            return Mono.just(unknownActivityType(activityType));
+        }
+
+        requestLog.sampled("agent-rules", "Fetching rules for org: {}, activity: {}", orgId, activityType);
+        return reactiveAgentRulesService.getMergedRules(orgId, activityType)
+                .<ResponseEntity<?>>map(response -> rulesPayloadCache.toResponse(response, acceptEncoding, ifNoneMatch))
+                .onErrorResume(OrganizationNotFoundException.class, e -> {
+                    requestLog.expectedFailure("agent-rules", "Error fetching rules: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", e.getMessage())));
+                })
+                .onErrorResume(BackendUnavailableException.class, e -> Mono.just(backendUnavailable(e)));
+    }
+
+    @Operation(
+            summary = "Get rules by industry (without org lookup)",
+            description = "Returns industry default rules directly. Useful for testing or when industry is known. " +
+                    "An industry without rules for the activity type gets empty DO / DONT lists."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rules retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AgentRulesResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Unknown activity type", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Rules backend unavailable", content = @Content)
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/by-industry")
+    public Mono<ResponseEntity<?>> getRulesByIndustry(
+            @Parameter(description = "Industry (e.g., investment_banking, healthcare, ecommerce)", required = true)
+            @RequestParam("industry") String industry,
+
+            @Parameter(description = "Activity type", required = true)
+            @RequestParam("activityType") String activityType,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (!activityTypeCatalog.isKnownActivityType(activityType)) {
+            return Mono.just(unknownActivityType(activityType));
+        }
+
+        requestLog.sampled("agent-rules", "Fetching rules for industry: {}, activity: {}", industry, activityType);
+        return reactiveAgentRulesService.getRulesByIndustry(industry, activityType)
+                .<ResponseEntity<?>>map(response -> rulesPayloadCache.toResponse(response, acceptEncoding, ifNoneMatch))
+                .onErrorResume(BackendUnavailableException.class, e -> Mono.just(backendUnavailable(e)));
+    }
+
+    @Operation(
+            summary = "Render the code-generation prompt",
+            description = "Merged rules + organization context rendered into final prompt text, trimmed to tokenBudget."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Prompt rendered",
+                    content = @Content(schema = @Schema(implementation = PromptRenderResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Unknown activity type, invalid budget, or budget smaller than the template", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Organization not found", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Rules backend unavailable", content = @Content)
+    })
+    @SecurityRequirement(name = "")  // Publicly accessible for VS Code extension
+    @GetMapping("/prompt")
+    public Mono<ResponseEntity<?>> renderPrompt(
+            @Parameter(description = "Organization UUID", required = true)
+            @RequestParam("orgId") UUID orgId,
+
+            @Parameter(description = "Activity type", required = true)
+            @RequestParam("activityType") String activityType,
+
+            @Parameter(description = "Maximum prompt size in (approximate) tokens", example = "2000")
+            @RequestParam(value = "tokenBudget", defaultValue = "2000") int tokenBudget
+    ) {
+        if (!activityTypeCatalog.isKnownActivityType(activityType)) {
+            return Mono.just(unknownActivityType(activityType));
+        }
+        if (tokenBudget < 1 || tokenBudget > maxTokenBudget) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("error", "tokenBudget must be between 1 and " + maxTokenBudget)));
+        }
+
+        // PromptRenderer reads through the blocking AgentRulesService
+        return Mono.fromCallable(() -> promptRenderer.render(orgId, activityType, tokenBudget))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(OrganizationNotFoundException.class, e -> {
+                    requestLog.expectedFailure("agent-rules-prompt", "Error rendering prompt: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", e.getMessage())));
+                })
+                .onErrorResume(TokenBudgetTooSmallException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body(Map.of("error", e.getMessage(), "minimumTokenBudget", e.getRequiredTokens()))))
+                .onErrorResume(BackendUnavailableException.class, e -> Mono.just(backendUnavailable(e)));
+    }
+
+    @Operation(
+            summary = "List activity types per industry",
+            description = "Catalog of valid activity types with their rule counts, grouped by industry."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog retrieved successfully", content = @Content)
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/activity-types")
+    public ResponseEntity<Map<String, List<ActivityTypeSummary>>> getActivityTypes(
+            @Parameter(description = "Restrict to one industry")
+            @RequestParam(value = "industry", required = false) String industry
+    ) {
+        if (industry != null) {
+            return ResponseEntity.ok(Map.of(industry, activityTypeCatalog.forIndustry(industry)));
+        }
+        return ResponseEntity.ok(activityTypeCatalog.byIndustry());
+    }
+
+    private ResponseEntity<?> unknownActivityType(String activityType) {
+        requestLog.expectedFailure("agent-rules", "Rejected unknown activity type: {}", activityType);
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", "Unknown activity type: " + activityType,
+                        "catalog", "GET /agent-rules/activity-types"));
+    }
+
+    private ResponseEntity<?> backendUnavailable(BackendUnavailableException e) {
+        log.error("Rules backend unavailable: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf((e.getRetryAfterMillis() + 999) / 1000))
+                .body(Map.of("error", "Rules temporarily unavailable, retry shortly"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.RuleSearchResponse;
+import com.quad.services.service.RuleSearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Rule Search Controller
+ *
+ * Full-text search over the rule catalog ("which rules mention PII?") for admins and
+ * the Story Agent. Served from the in-memory RuleSearchIndex; never scans the table.
+ */
+@RestController
+@RequestMapping("${api.version.prefix:/v1}/agent-rules/search")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Agent Rules", description = "Coding rules for AI code generation (Story Agent)")
+public class RuleSearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final RuleSearchIndex ruleSearchIndex;
+
+    @Operation(
+            summary = "Search rules",
+            description = "BM25-ranked full-text search over rule text, optionally filtered by industry, " +
+                    "activity type and rule type (DO / DONT). Returns facet counts over all matches."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Ranked matches",
+                    content = @Content(schema = @Schema(implementation = RuleSearchResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Missing query or invalid limit", content = @Content)
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping
+    public ResponseEntity<?> search(
+            @Parameter(description = "Search text", required = true, example = "PII logs")
+            @RequestParam("q") String query,
+            @Parameter(description = "Industry facet")
+            @RequestParam(value = "industry", required = false) String industry,
+            @Parameter(description = "Activity type facet")
+            @RequestParam(value = "activityType", required = false) String activityType,
+            @Parameter(description = "Rule type facet (DO / DONT)")
+            @RequestParam(value = "ruleType", required = false) String ruleType,
+            @Parameter(description = "Maximum hits", example = "20")
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        if (query.isBlank() || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "q is required and limit must be between 1 and " + MAX_LIMIT));
+        }
+
+        RuleSearchResponse response = ruleSearchIndex.search(query, industry, activityType,
+                ruleType != null ? ruleType.toUpperCase() : null, limit);
+        log.debug("Rule search '{}': {} matches in {}us", query, response.getTotal(), response.getTookMicros());
+        return ResponseEntity.ok(response);
+    }
+}
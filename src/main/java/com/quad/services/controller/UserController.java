@@ -1,6 +1,9 @@
 package com.quad.services.controller;
 
+import com.quad.services.dto.UserLookupRequest;
+import com.quad.services.dto.UserLookupResponse;
 import com.quad.services.entity.User;
+import com.quad.services.logging.RequestLog;
 import com.quad.services.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,8 +13,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -37,6 +42,10 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService userService;
+    private final RequestLog requestLog;
+
+    @Value("${quad.users.bulk-lookup.max-emails:500}")
+    private int maxBulkLookupEmails;
 
     @Operation(
             summary = "Find user by email address",
@@ -62,17 +71,15 @@ public class UserController {
             @PathVariable String email
     ) {
         try {
-            log.info("GET /users/email/{} - Looking up user", email);
-
             Optional<User> user = userService.findByEmail(email);
 
             if (user.isEmpty()) {
-                log.info("User not found: {}", email);
+                requestLog.sampled("users-email", "User not found: {}", email);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "User not found"));
             }
 
-            log.info("User found: {} (id: {})", email, user.get().getId());
+            requestLog.sampled("users-email", "User found: {} (id: {})", email, user.get().getId());
             return ResponseEntity.ok(user.get());
 
         } catch (Exception e) {
@@ -101,9 +108,8 @@ public class UserController {
             @PathVariable String email
     ) {
         try {
-            log.info("GET /users/email/{}/exists - Checking if user exists", email);
             boolean exists = userService.existsByEmail(email);
-            log.info("User exists check for {}: {}", email, exists);
+            requestLog.sampled("users-email", "User exists check for {}: {}", email, exists);
             return ResponseEntity.ok(Map.of("exists", exists));
         } catch (Exception e) {
             log.error("Error checking user existence: {}", e.getMessage(), e);
@@ -111,4 +117,42 @@ public class UserController {
                     .body(Map.of("error", "Failed to check user existence"));
         }
     }
+
+    @Operation(
+            summary = "Bulk lookup users by email",
+            description = "Resolve up to quad.users.bulk-lookup.max-emails addresses in one request and one query. " +
+                    "Returns a summary per found email (keyed by lower-cased email) and the list of missing emails. " +
+                    "Requires X-Service-Key (backend callers) or a platform operator's Bearer token."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lookup completed",
+                    content = @Content(schema = @Schema(implementation = UserLookupResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty or too many emails",
+                    content = @Content
+            ),
+            @ApiResponse(responseCode = "401", description = "No service key or token", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Caller is not a backend service or platform operator",
+                    content = @Content)
+    })
+    @PostMapping("/lookup")
+    public ResponseEntity<?> lookupUsers(@Valid @RequestBody UserLookupRequest request) {
+        if (request.getEmails().size() > maxBulkLookupEmails) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + maxBulkLookupEmails + " emails per lookup"));
+        }
+
+        try {
+            requestLog.sampled("users-lookup", "Bulk lookup of {} emails", request.getEmails().size());
+            return ResponseEntity.ok(userService.lookupByEmails(request.getEmails()));
+        } catch (Exception e) {
+            log.error("Error in bulk user lookup: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to look up users"));
+        }
+    }
 }
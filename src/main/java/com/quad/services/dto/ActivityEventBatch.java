@@ -0,0 +1,16 @@
+package com.quad.services.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ActivityEventBatch {
+
+    @NotEmpty(message = "At least one event is required")
+    @Size(max = 500, message = "At most 500 events per request")
+    private List<@Valid ActivityEventRequest> events;
+}
@@ -0,0 +1,20 @@
+package com.quad.services.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ActivityEventRequest {
+
+    @NotBlank(message = "Activity type is required")
+    @Size(max = 100)
+    private String activityType;
+
+    private LocalDateTime timestamp;  // Defaults to server receive time
+
+    @Size(max = 30)
+    private String outcome;           // e.g. "accepted", "rejected", "error"
+}
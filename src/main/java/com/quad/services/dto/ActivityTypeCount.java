@@ -0,0 +1,9 @@
+package com.quad.services.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * How often a user recently performed an activity type.
+ */
+public record ActivityTypeCount(String activityType, int count, LocalDateTime lastSeen) {
+}
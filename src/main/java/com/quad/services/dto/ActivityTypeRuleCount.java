@@ -0,0 +1,10 @@
+package com.quad.services.dto;
+
+/**
+ * Row of the activity-type catalog aggregate (rules per industry and activity type).
+ */
+public interface ActivityTypeRuleCount {
+    String getIndustry();
+    String getActivityType();
+    Long getRuleCount();
+}
@@ -0,0 +1,7 @@
+package com.quad.services.dto;
+
+/**
+ * Catalog entry: an activity type available for an industry and how many rules it has.
+ */
+public record ActivityTypeSummary(String activityType, long ruleCount) {
+}
@@ -1,9 +1,9 @@
 package com.quad.services.dto;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,15 +12,47 @@ import java.util.Map;
  *
  * Returns merged rules (industry defaults + org customizations)
  * that Story Agent uses to guide Claude AI code generation.
+ *
+ * Serialized as { "DO": [...], "DONT": [...] }; the lists are usually read-only views
+ * over the shared RuleTextDictionary (see AgentRulesService.toResponse).
+ * Rules are ordered by IndustryDefault.priority, highest first; the priorities
+ * are kept alongside (not serialized) so prompt rendering can trim the least
+ * important rules to a token budget.
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+@Getter
 public class AgentRulesResponse {
 
-    private String activityType;  // "add_api_endpoint"
-    private String industry;      // "investment_banking"
+    private final String activityType;  // "add_api_endpoint"
+    private final String industry;      // "investment_banking"
+
+    @JsonIgnore
+    private final List<String> doRules;
+
+    @JsonIgnore
+    private final int[] doPriorities;
+
+    @JsonIgnore
+    private final List<String> dontRules;
+
+    @JsonIgnore
+    private final int[] dontPriorities;
+
+    public AgentRulesResponse(String activityType, String industry,
+                              List<String> doRules, int[] doPriorities,
+                              List<String> dontRules, int[] dontPriorities) {
+        this.activityType = activityType;
+        this.industry = industry;
+        this.doRules = doRules;
+        this.doPriorities = doPriorities;
+        this.dontRules = dontRules;
+        this.dontPriorities = dontPriorities;
+    }
 
     // Rules grouped by type: { "DO": [...], "DONT": [...] }
-    private Map<String, List<String>> rules;
+    public Map<String, List<String>> getRules() {
+        Map<String, List<String>> rules = new LinkedHashMap<>(4);
+        rules.put("DO", doRules);
+        rules.put("DONT", dontRules);
+        return rules;
+    }
 }
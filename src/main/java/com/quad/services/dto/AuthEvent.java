@@ -0,0 +1,33 @@
+package com.quad.services.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One authentication audit event (quad_auth_events row).
+ */
+public record AuthEvent(LocalDateTime occurredAt, Type eventType, UUID userId, UUID orgId,
+                        String email, String clientIp, String detail) {
+
+    public enum Type { SIGNUP, LOGIN, LOGIN_FAILED, EMAIL_VERIFIED, VERIFICATION_FAILED }
+
+    /**
+     * Same event attributed to an account (failed attempts are recorded before one is known).
+     */
+    public AuthEvent withUser(UUID userId, UUID orgId) {
+        return new AuthEvent(occurredAt, eventType, userId, orgId, email, clientIp, detail);
+    }
+
+    /**
+     * New event, with every text cut to its quad_auth_events column width: an address @Email
+     * accepts can be longer than the column, and one over-long row would fail its whole batch.
+     */
+    public static AuthEvent of(Type type, UUID userId, UUID orgId, String email, String clientIp, String detail) {
+        return new AuthEvent(LocalDateTime.now(), type, userId, orgId,
+                truncate(email, 255), truncate(clientIp, 64), truncate(detail, 255));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -13,7 +13,8 @@ import java.util.UUID;
 @AllArgsConstructor
 public class AuthResponse {
     private Boolean success;
-    private String token;
+    private String token;          // Short-lived access token
+    private String refreshToken;   // Single use; exchange at /auth/refresh
     private UUID userId;
     private String email;
     private String fullName;
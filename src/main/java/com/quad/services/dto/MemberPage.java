@@ -0,0 +1,18 @@
+package com.quad.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberPage {
+    private List<UserSummary> members;
+    private String nextCursor;  // null on the last page
+    private Boolean hasMore;
+}
@@ -0,0 +1,36 @@
+package com.quad.services.dto;
+
+import com.quad.services.config.CacheWeigher;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the organization settings used when building AI prompts
+ * and agent rules. Cached per org in "orgContext" (see OrgContextService).
+ */
+@Value
+@Builder
+public class OrgContext implements CacheWeigher.Weighable {
+
+    UUID orgId;
+    String name;
+    String industry;          // Never blank: falls back to "general"
+    String aiTier;
+    String sandboxStrategy;
+    String timezone;
+    String teamSize;
+
+    @Override
+    public long estimatedBytes() {
+        return 48
+                + CacheWeigher.estimate(orgId)
+                + CacheWeigher.estimate(name)
+                + CacheWeigher.estimate(industry)
+                + CacheWeigher.estimate(aiTier)
+                + CacheWeigher.estimate(sandboxStrategy)
+                + CacheWeigher.estimate(timezone)
+                + CacheWeigher.estimate(teamSize);
+    }
+}
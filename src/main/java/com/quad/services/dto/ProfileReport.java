@@ -0,0 +1,33 @@
+package com.quad.services.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Summary of one JFR profiling session (see ProfilingService).
+ *
+ * - hotMethods: top frames of CPU samples (where the CPU actually was)
+ * - hotApplicationMethods: first com.quad.services frame of each CPU sample (which of our code paid for it)
+ * - allocations: sampled allocation weight by object class and first non-JDK frame
+ * - contention: monitor enters and thread parks above the JFR threshold, by class and first non-JDK frame
+ * - gcPauses: pause totals per collector
+ */
+public record ProfileReport(String id, String instance, String settings, LocalDateTime startedAt,
+                            long durationSeconds, long jfrBytes, long cpuSamples,
+                            List<HotMethod> hotMethods, List<HotMethod> hotApplicationMethods,
+                            List<AllocationSite> allocations, List<ContentionSite> contention,
+                            List<GcPauses> gcPauses) {
+
+    public record HotMethod(String method, long samples, double percent) {
+    }
+
+    public record AllocationSite(String objectClass, String method, long bytes, double percent) {
+    }
+
+    public record ContentionSite(String kind, String objectClass, String method, long events,
+                                 long totalMillis, long maxMillis) {
+    }
+
+    public record GcPauses(String collector, long collections, long totalPauseMillis, long maxPauseMillis) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.quad.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromptRenderResponse {
+    private String activityType;
+    private String industry;
+    private String prompt;
+    private Integer estimatedTokens;
+    private Integer tokenBudget;
+    private Integer includedRules;
+    private Integer droppedRules;  // Lowest-priority rules trimmed to fit the budget
+}
@@ -0,0 +1,16 @@
+package com.quad.services.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of quad_industry_defaults needed to build the rule search index.
+ */
+public interface RuleIndexRow {
+    UUID getId();
+    String getIndustry();
+    String getActivityType();
+    String getRuleType();
+    String getRuleText();
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,6 @@
+package com.quad.services.dto;
+
+import java.util.UUID;
+
+public record RuleSearchHit(UUID id, String industry, String activityType, String ruleType, String ruleText, double score) {
+}
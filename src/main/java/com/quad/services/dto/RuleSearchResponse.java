@@ -0,0 +1,21 @@
+package com.quad.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleSearchResponse {
+    private String query;
+    private Integer total;                            // Matching rules after facet filters
+    private List<RuleSearchHit> hits;                 // Best first
+    private Map<String, Map<String, Integer>> facets; // industry / activityType / ruleType -> value -> count
+    private Long tookMicros;
+}
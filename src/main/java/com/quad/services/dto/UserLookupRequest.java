@@ -0,0 +1,13 @@
+package com.quad.services.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserLookupRequest {
+
+    @NotEmpty(message = "At least one email is required")
+    private List<String> emails;
+}
@@ -0,0 +1,18 @@
+package com.quad.services.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserLookupResponse {
+    private Map<String, UserSummary> users;  // lower-cased email -> summary, in request order
+    private List<String> missing;
+}
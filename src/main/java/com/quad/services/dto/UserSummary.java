@@ -0,0 +1,18 @@
+package com.quad.services.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lightweight user projection for lookups (no password hash, no profile columns).
+ * Spring Data fills it from the query aliases, so no User entity is loaded or managed.
+ */
+public interface UserSummary {
+    UUID getId();
+    String getEmail();
+    String getFullName();
+    String getRole();
+    UUID getOrgId();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,24 @@
+package com.quad.services.exception;
+
+/**
+ * A backing store (Postgres) is failing, slow, or behind an open circuit breaker (maps to 503).
+ * Distinct from "not found": the data may exist, we just cannot read it right now.
+ */
+public class BackendUnavailableException extends RuntimeException {
+
+    private final long retryAfterMillis;
+
+    public BackendUnavailableException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public BackendUnavailableException(String message, long retryAfterMillis, Throwable cause) {
+        super(message, cause);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
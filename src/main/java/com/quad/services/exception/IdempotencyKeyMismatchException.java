@@ -0,0 +1,11 @@
+package com.quad.services.exception;
+
+/**
+ * Idempotency-Key reused for a different request (maps to 422).
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException() {
+        super("Idempotency-Key was already used for a different request");
+    }
+}
@@ -0,0 +1,11 @@
+package com.quad.services.exception;
+
+/**
+ * Refresh token unknown, expired, revoked or replayed (maps to 401).
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
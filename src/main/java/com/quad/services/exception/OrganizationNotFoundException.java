@@ -0,0 +1,13 @@
+package com.quad.services.exception;
+
+import java.util.UUID;
+
+/**
+ * The requested organization does not exist (maps to 404).
+ */
+public class OrganizationNotFoundException extends RuntimeException {
+
+    public OrganizationNotFoundException(UUID orgId) {
+        super("Organization not found: " + orgId);
+    }
+}
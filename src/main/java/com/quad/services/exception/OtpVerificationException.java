@@ -0,0 +1,20 @@
+package com.quad.services.exception;
+
+/**
+ * Email verification code rejected. TOO_MANY_ATTEMPTS maps to 429, everything else to 401.
+ */
+public class OtpVerificationException extends RuntimeException {
+
+    public enum Reason { INVALID, EXPIRED, TOO_MANY_ATTEMPTS }
+
+    private final Reason reason;
+
+    public OtpVerificationException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,27 @@
+package com.quad.services.exception;
+
+/**
+ * A profiling session cannot start right now. BUSY maps to 409, COOLDOWN to 429, OVERLOADED to 503;
+ * all carry a Retry-After hint.
+ */
+public class ProfilingUnavailableException extends RuntimeException {
+
+    public enum Reason { BUSY, COOLDOWN, OVERLOADED }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public ProfilingUnavailableException(Reason reason, String message, long retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.quad.services.exception;
+
+import lombok.Getter;
+
+/**
+ * The prompt template alone (without any rules) does not fit the requested token budget (maps to 400).
+ */
+@Getter
+public class TokenBudgetTooSmallException extends RuntimeException {
+
+    private final int requiredTokens;
+
+    public TokenBudgetTooSmallException(int tokenBudget, int requiredTokens) {
+        super("tokenBudget " + tokenBudget + " is smaller than the prompt template (" + requiredTokens + " tokens)");
+        this.requiredTokens = requiredTokens;
+    }
+}
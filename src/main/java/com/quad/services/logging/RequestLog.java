@@ -0,0 +1,100 @@
+package com.quad.services.logging;
+
+import com.quad.services.config.RequestLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Request-path logging with bounded cost.
+ *
+ * - sampled(): high-volume success logs, kept with the route's sample rate; the decision
+ *   is made before any formatting, so dropped lines cost one random number
+ * - expectedFailure(): client errors such as invalid credentials, logged without stack
+ *   trace and at most expected-failures-per-minute times per route; the number suppressed
+ *   is reported with the first line of the next window
+ *
+ * Every line carries a "route" field in the JSON output. Writing happens on the async
+ * appender thread (logback-spring.xml), never on the request thread.
+ */
+@Component
+public class RequestLog {
+
+    private static final Logger log = LoggerFactory.getLogger("com.quad.services.requests");
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private static final class FailureWindow {
+        final AtomicLong start = new AtomicLong();
+        final AtomicInteger logged = new AtomicInteger();
+        final AtomicInteger suppressed = new AtomicInteger();
+    }
+
+    private final RequestLogProperties properties;
+    private final ConcurrentHashMap<String, FailureWindow> failureWindows = new ConcurrentHashMap<>();
+    private final Counter suppressedFailures;
+
+    public RequestLog(RequestLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.suppressedFailures = Counter.builder("quad.logging.suppressed")
+                .description("Expected-failure log lines dropped by the per-route rate limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Log a successful request line, subject to the route's sample rate.
+     */
+    public void sampled(String route, String message, Object... args) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        double rate = properties.getSampleRates().getOrDefault(route, properties.getDefaultSampleRate());
+        if (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return;
+        }
+        log.info(message + " {}", append(args, kv("route", route)));
+    }
+
+    /**
+     * Log an expected client failure (no stack trace), rate-limited per route.
+     */
+    public void expectedFailure(String route, String message, Object... args) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        FailureWindow window = failureWindows.computeIfAbsent(route, r -> new FailureWindow());
+        long now = System.currentTimeMillis();
+        long start = window.start.get();
+        int carried = 0;
+        if (now - start >= WINDOW_MILLIS && window.start.compareAndSet(start, now)) {
+            window.logged.set(0);
+            carried = window.suppressed.getAndSet(0);
+        }
+
+        if (window.logged.incrementAndGet() > properties.getExpectedFailuresPerMinute()) {
+            window.suppressed.incrementAndGet();
+            suppressedFailures.increment();
+            return;
+        }
+        if (carried > 0) {
+            log.info(message + " {} {}", append(append(args, kv("route", route)), kv("suppressed", carried)));
+        } else {
+            log.info(message + " {}", append(args, kv("route", route)));
+        }
+    }
+
+    private static Object[] append(Object[] args, Object last) {
+        Object[] all = new Object[args.length + 1];
+        System.arraycopy(args, 0, all, 0, args.length);
+        all[args.length] = last;
+        return all;
+    }
+}
@@ -0,0 +1,26 @@
+package com.quad.services.mail;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional outbox: enqueue() inserts the email in the caller's transaction, so it is
+ * sent if and only if the business change commits. Delivery is EmailOutboxDispatcher's job.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmailOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quad_email_outbox (recipient, subject, body) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String recipient, String subject, String body) {
+        jdbcTemplate.update(INSERT_SQL, recipient, subject, body);
+    }
+}
@@ -0,0 +1,134 @@
+package com.quad.services.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delivers queued outbox emails in batches.
+ *
+ * Each batch takes three steps, and no transaction is open while mail is sent:
+ * 1. Claim: one short transaction picks up to batch-size due rows with FOR UPDATE SKIP
+ *    LOCKED and pushes their next_attempt_at claim-lease-seconds ahead, so neither this
+ *    nor another instance picks them up again while they are being sent
+ * 2. Send: through the configured EmailSender, outside any transaction
+ * 3. Record: a second short transaction marks them sent, or schedules the retry
+ *
+ * A crash between 1 and 3 sends the batch again once the lease runs out (at least once).
+ * Failures are retried with exponential backoff (30s, 1m, 2m, ...) up to max-attempts,
+ * then marked failed. One run sends at most max-batches-per-run batches, so a backlog
+ * cannot hold a scheduler thread indefinitely; the next run continues.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final String CLAIM_SQL =
+            "UPDATE quad_email_outbox SET next_attempt_at = ? WHERE id IN (" +
+            "SELECT id FROM quad_email_outbox " +
+            "WHERE sent_at IS NULL AND failed_at IS NULL AND next_attempt_at <= ? " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, recipient, subject, body, attempts";
+    private static final String SENT_SQL =
+            "UPDATE quad_email_outbox SET sent_at = ?, attempts = attempts + 1 WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE quad_email_outbox SET attempts = attempts + 1, next_attempt_at = ?, last_error = ?, failed_at = ? WHERE id = ?";
+
+    private record OutboxEmail(long id, String recipient, String subject, String body, int attempts) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailSender emailSender;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final long claimLeaseSeconds;
+    private final Counter sent;
+    private final Counter failed;
+
+    public EmailOutboxDispatcher(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 EmailSender emailSender,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${quad.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${quad.mail.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+                                 @Value("${quad.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${quad.mail.outbox.claim-lease-seconds:300}") long claimLeaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailSender = emailSender;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.claimLeaseSeconds = claimLeaseSeconds;
+        this.sent = Counter.builder("quad.mail.outbox.sent").register(meterRegistry);
+        this.failed = Counter.builder("quad.mail.outbox.failed")
+                .description("Send attempts that failed (retried until max-attempts)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${quad.mail.outbox.poll-ms:2000}")
+    public void dispatch() {
+        try {
+            for (int batch = 1; batch <= maxBatchesPerRun; batch++) {
+                if (dispatchBatch() < batchSize) {
+                    break;  // Drained
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Email outbox dispatch failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> batch = transactionTemplate.execute(status -> jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxEmail(rs.getLong("id"), rs.getString("recipient"), rs.getString("subject"),
+                        rs.getString("body"), rs.getInt("attempts")),
+                Timestamp.valueOf(now.plusSeconds(claimLeaseSeconds)), Timestamp.valueOf(now), batchSize));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> sentRows = new ArrayList<>();
+        List<Object[]> retryRows = new ArrayList<>();
+        for (OutboxEmail email : batch) {
+            try {
+                emailSender.send(email.recipient(), email.subject(), email.body());
+                sentRows.add(new Object[]{Timestamp.valueOf(LocalDateTime.now()), email.id()});
+            } catch (Exception e) {
+                int attempts = email.attempts() + 1;
+                boolean giveUp = attempts >= maxAttempts;
+                LocalDateTime next = now.plusSeconds(30L << Math.min(attempts - 1, 10));
+                retryRows.add(new Object[]{Timestamp.valueOf(next), String.valueOf(e.getMessage()),
+                        giveUp ? Timestamp.valueOf(now) : null, email.id()});
+                log.warn("Email {} to {} failed (attempt {}{}): {}", email.id(), email.recipient(), attempts,
+                        giveUp ? ", giving up" : "", e.getMessage());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(SENT_SQL, sentRows);
+            }
+            if (!retryRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(RETRY_SQL, retryRows);
+            }
+        });
+        sent.increment(sentRows.size());
+        failed.increment(retryRows.size());
+        return batch.size();
+    }
+}
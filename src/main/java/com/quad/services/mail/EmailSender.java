@@ -0,0 +1,10 @@
+package com.quad.services.mail;
+
+/**
+ * Delivers one email. Called by EmailOutboxDispatcher only, never on a request thread.
+ * Throw to have the message retried with backoff.
+ */
+public interface EmailSender {
+
+    void send(String recipient, String subject, String body) throws Exception;
+}
@@ -0,0 +1,36 @@
+package com.quad.services.mail;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Local/testing sender: logs the recipient and subject, and writes the full message to
+ * quad.mail.file-dir (one .txt file per email) when that is set. No real delivery.
+ * Active when quad.mail.sender=log (the default).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "quad.mail.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingEmailSender implements EmailSender {
+
+    @Value("${quad.mail.file-dir:}")
+    private String fileDir;
+
+    @Override
+    public void send(String recipient, String subject, String body) throws Exception {
+        log.info("Email to {}: {}", recipient, subject);
+        if (!fileDir.isBlank()) {
+            Path dir = Files.createDirectories(Path.of(fileDir));
+            String message = "To: " + recipient + "\nSubject: " + subject + "\n\n" + body + "\n";
+            Files.writeString(dir.resolve(System.currentTimeMillis() + "-" + UUID.randomUUID() + ".txt"),
+                    message, StandardCharsets.UTF_8);
+        }
+    }
+}
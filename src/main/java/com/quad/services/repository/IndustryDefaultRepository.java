@@ -1,11 +1,19 @@
 package com.quad.services.repository;
 
+import com.quad.services.dto.ActivityTypeRuleCount;
+import com.quad.services.dto.RuleIndexRow;
 import com.quad.services.entity.IndustryDefault;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface IndustryDefaultRepository extends JpaRepository<IndustryDefault, UUID> {
@@ -13,11 +21,41 @@ public interface IndustryDefaultRepository extends JpaRepository<IndustryDefault
     /**
      * Find all rules for a specific industry and activity type.
      * Used by Story Agent to fetch coding rules before code generation.
+     * Times out after 2s so a slow DB trips the rules circuit breaker instead of piling up requests.
      */
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "2000"))
     List<IndustryDefault> findByIndustryAndActivityType(String industry, String activityType);
 
     /**
      * Find all rules for an industry (all activity types).
      */
     List<IndustryDefault> findByIndustry(String industry);
+
+    /**
+     * Rule counts per (industry, activity type) - the whole activity-type catalog in one aggregate.
+     */
+    @Query("SELECT d.industry AS industry, d.activityType AS activityType, COUNT(d) AS ruleCount " +
+            "FROM IndustryDefault d GROUP BY d.industry, d.activityType ORDER BY d.industry, d.activityType")
+    List<ActivityTypeRuleCount> countRulesByIndustryAndActivityType();
+
+    /**
+     * Distinct rule texts - the live size of the rule text dictionary.
+     */
+    @Query("SELECT COUNT(DISTINCT d.ruleText) FROM IndustryDefault d")
+    long countDistinctRuleTexts();
+
+    /**
+     * Every rule for the search index, streamed (must run inside a transaction).
+     */
+    @Query("SELECT d.id AS id, d.industry AS industry, d.activityType AS activityType, d.ruleType AS ruleType, " +
+            "d.ruleText AS ruleText, d.updatedAt AS updatedAt FROM IndustryDefault d")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    Stream<RuleIndexRow> streamRulesForIndex();
+
+    /**
+     * Rules created or edited since the given time (incremental search index updates).
+     */
+    @Query("SELECT d.id AS id, d.industry AS industry, d.activityType AS activityType, d.ruleType AS ruleType, " +
+            "d.ruleText AS ruleText, d.updatedAt AS updatedAt FROM IndustryDefault d WHERE d.updatedAt >= :since")
+    List<RuleIndexRow> findRulesUpdatedSince(@Param("since") LocalDateTime since);
 }
@@ -1,14 +1,34 @@
 package com.quad.services.repository;
 
 import com.quad.services.entity.Organization;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface OrganizationRepository extends JpaRepository<Organization, UUID> {
+
+    /**
+     * Redeclared to bound the lookup on the agent-rules hot path (2s query timeout).
+     */
+    @Override
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "2000"))
+    Optional<Organization> findById(UUID id);
+
+    /**
+     * The given IDs that still belong to an organization (one IN query, no entities loaded).
+     */
+    @Query("SELECT o.id FROM Organization o WHERE o.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
     Optional<Organization> findBySlug(String slug);
     boolean existsBySlug(String slug);
 }
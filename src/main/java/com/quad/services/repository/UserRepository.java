@@ -1,14 +1,80 @@
 package com.quad.services.repository;
 
+import com.quad.services.dto.UserSummary;
 import com.quad.services.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByEmail(String email);
-    boolean existsByEmail(String email);
+
+    /**
+     * Case-insensitive email lookup, backed by idx_users_email_lower (unique on lower(email), so at most one row).
+     */
+    @Query("SELECT u FROM User u WHERE lower(u.email) = lower(:email)")
+    Optional<User> findByEmail(@Param("email") String email);
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE lower(u.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
+
+    /**
+     * Bulk lookup by lower-cased emails in one query (index-only scan of idx_users_email_lower).
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.fullName AS fullName, u.role AS role, " +
+            "u.orgId AS orgId, u.isActive AS isActive, u.createdAt AS createdAt " +
+            "FROM User u WHERE lower(u.email) IN :emails")
+    List<UserSummary> findSummariesByEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * All emails, lower-cased, streamed with a server-side cursor (must run inside a transaction).
+     * Used to build EmailExistenceFilter without materializing the users table.
+     */
+    @Query("SELECT lower(u.email) FROM User u")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "10000"))
+    Stream<String> streamAllEmails();
+
+    @Query("SELECT lower(u.email) FROM User u WHERE u.createdAt >= :since")
+    List<String> findEmailsCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * First page of an organization's members, oldest first (idx_users_org_created_id).
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.fullName AS fullName, u.role AS role, " +
+            "u.orgId AS orgId, u.isActive AS isActive, u.createdAt AS createdAt " +
+            "FROM User u WHERE u.orgId = :orgId " +
+            "ORDER BY u.createdAt, u.id")
+    List<UserSummary> findMembers(@Param("orgId") UUID orgId, Limit limit);
+
+    /**
+     * Members after the (createdAt, id) seek position. The redundant createdAt >= bound
+     * keeps the index range tight, so cost does not grow with page depth.
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.fullName AS fullName, u.role AS role, " +
+            "u.orgId AS orgId, u.isActive AS isActive, u.createdAt AS createdAt " +
+            "FROM User u WHERE u.orgId = :orgId " +
+            "AND u.createdAt >= :createdAt " +
+            "AND (u.createdAt > :createdAt OR u.id > :id) " +
+            "ORDER BY u.createdAt, u.id")
+    List<UserSummary> findMembersAfter(@Param("orgId") UUID orgId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id,
+                                       Limit limit);
+
+    /**
+     * Serialize signups of one email across instances until the calling transaction ends.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(lower(:email)))", nativeQuery = true)
+    Integer lockEmailForSignup(@Param("email") String email);
 }
@@ -0,0 +1,97 @@
+package com.quad.services.resilience;
+
+import com.quad.services.exception.BackendUnavailableException;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.TransactionException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Minimal circuit breaker around database calls.
+ *
+ * - CLOSED: calls pass through; N consecutive backend failures open the circuit
+ * - OPEN: calls fail fast with BackendUnavailableException until openMillis elapse
+ * - HALF_OPEN: a single trial call is let through; success closes, failure re-opens
+ *
+ * Only backend failures count (DataAccessException, TransactionException,
+ * PersistenceException - which include query and connection timeouts). Business
+ * exceptions such as "not found" pass through untouched and count as success.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public <T> T call(Supplier<T> supplier) {
+        if (!allowRequest()) {
+            throw new BackendUnavailableException(name + " unavailable (circuit open)", remainingOpenMillis());
+        }
+
+        try {
+            T result = supplier.get();
+            onSuccess();
+            return result;
+        } catch (DataAccessException | TransactionException | PersistenceException e) {
+            onFailure(e);
+            throw new BackendUnavailableException(name + " unavailable: " + e.getMessage(), openMillis, e);
+        } catch (RuntimeException e) {
+            onSuccess();
+            throw e;
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    private boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            // Exactly one caller wins the trial call
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Circuit {} closed, backend recovered", name);
+        }
+    }
+
+    private void onFailure(RuntimeException e) {
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN || (current == State.CLOSED && failures >= failureThreshold)) {
+            openedAt = System.currentTimeMillis();
+            state.set(State.OPEN);
+            log.warn("Circuit {} opened for {}ms after {} failure(s): {}", name, openMillis, failures, e.getMessage());
+        }
+    }
+
+    private long remainingOpenMillis() {
+        return Math.max(1, openMillis - (System.currentTimeMillis() - openedAt));
+    }
+}
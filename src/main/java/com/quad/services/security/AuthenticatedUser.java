@@ -0,0 +1,9 @@
+package com.quad.services.security;
+
+import java.util.UUID;
+
+/**
+ * Principal for requests carrying a valid access token (claims from JwtUtil.generateToken).
+ */
+public record AuthenticatedUser(UUID userId, String email, String role, UUID orgId) {
+}
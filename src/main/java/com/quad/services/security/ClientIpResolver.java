@@ -0,0 +1,39 @@
+package com.quad.services.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client address for rate limiting (key=ip) and the auth audit trail.
+ *
+ * X-Forwarded-For is "<whatever the client sent>, <hops appended by our proxies>", so only
+ * the right-most entries can be trusted. Cloud Run appends the real peer address last
+ * (trusted-proxy-hops=0); behind an external HTTPS load balancer the load balancer adds
+ * its own address after it (trusted-proxy-hops=1). Entries further left are client input
+ * and ignored. Without the header (local runs) the socket peer is used.
+ */
+@Component
+public class ClientIpResolver {
+
+    private final int trustedProxyHops;
+
+    public ClientIpResolver(@Value("${quad.http.trusted-proxy-hops:0}") int trustedProxyHops) {
+        this.trustedProxyHops = trustedProxyHops;
+    }
+
+    public String clientIp(HttpServletRequest request) {
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isBlank()) {
+            return request.getRemoteAddr();
+        }
+        String[] hops = forwarded.split(",");
+        // Fewer hops than trusted proxies: the header did not come through our proxy chain
+        int index = hops.length - 1 - trustedProxyHops;
+        if (index < 0) {
+            return request.getRemoteAddr();
+        }
+        String hop = hops[index].trim();
+        return hop.isEmpty() ? request.getRemoteAddr() : hop;
+    }
+}
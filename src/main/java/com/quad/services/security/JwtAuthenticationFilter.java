@@ -0,0 +1,78 @@
+package com.quad.services.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Authenticates "Authorization: Bearer <jwt>" requests.
+ *
+ * Valid tokens become an AuthenticatedUser principal with authority ROLE_<role>, plus
+ * ROLE_PLATFORM_OPERATOR for the user IDs in PlatformOperators.
+ * Missing, invalid or revoked tokens (family in TokenRevocationList) leave the request
+ * anonymous; protected routes then get 401.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
+    private final PlatformOperators platformOperators;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            try {
+                Claims claims = jwtUtil.extractClaims(header.substring(BEARER_PREFIX.length()));
+                String family = claims.get("fam", String.class);
+                if (family != null && tokenRevocationList.isRevoked(UUID.fromString(family))) {
+                    log.debug("Rejected token from revoked family {}", family);
+                    chain.doFilter(request, response);
+                    return;
+                }
+                AuthenticatedUser user = toUser(claims);
+                List<SimpleGrantedAuthority> authorities = new ArrayList<>(2);
+                if (user.role() != null) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + user.role()));
+                }
+                if (platformOperators.isOperator(user.userId())) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + PlatformOperators.ROLE));
+                }
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, authorities));
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Rejected bearer token: {}", e.getMessage());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static AuthenticatedUser toUser(Claims claims) {
+        String orgId = claims.get("orgId", String.class);
+        return new AuthenticatedUser(
+                UUID.fromString(claims.get("userId", String.class)),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                orgId != null ? UUID.fromString(orgId) : null);
+    }
+}
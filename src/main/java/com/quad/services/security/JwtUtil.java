@@ -26,7 +26,10 @@ public class JwtUtil {
         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 
-    public String generateToken(UUID userId, String email, String role, UUID orgId) {
+    /**
+     * Short-lived access token; familyId ("fam") ties it to the refresh token family for revocation.
+     */
+    public String generateToken(UUID userId, String email, String role, UUID orgId, UUID familyId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId.toString());
         claims.put("email", email);
@@ -34,6 +37,9 @@ public class JwtUtil {
         if (orgId != null) {
             claims.put("orgId", orgId.toString());
         }
+        if (familyId != null) {
+            claims.put("fam", familyId.toString());
+        }
 
         return Jwts.builder()
                 .claims(claims)
@@ -0,0 +1,36 @@
+package com.quad.services.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Platform operators (QUAD staff), configured by user ID.
+ *
+ * Granted ROLE_PLATFORM_OPERATOR by JwtAuthenticationFilter for cross-tenant endpoints
+ * (JFR profiling, bulk user lookup). Keyed on the server-generated user ID, never on the
+ * email claim: emails are chosen by whoever signs up, IDs are not.
+ */
+@Component
+public class PlatformOperators {
+
+    public static final String ROLE = "PLATFORM_OPERATOR";
+
+    private final Set<UUID> userIds;
+
+    public PlatformOperators(@Value("${quad.platform.operator-user-ids:}") String userIds) {
+        this.userIds = Arrays.stream(userIds.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .map(UUID::fromString)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isOperator(UUID userId) {
+        return userId != null && userIds.contains(userId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.quad.services.security;
+
+import com.quad.services.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Admission control for public endpoints.
+ *
+ * Checks every configured route matching the request against its budget and
+ * rejects with 429 + Retry-After when any bucket is empty. Registered in the
+ * security filter chain (see SecurityConfig), ahead of authentication.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final RateLimiter rateLimiter;
+    private final ClientIpResolver clientIpResolver;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        for (Map.Entry<String, RateLimitProperties.Route> entry : rateLimiter.routes().entrySet()) {
+            RateLimitProperties.Route route = entry.getValue();
+            if (route.getPattern() == null || !PATH_MATCHER.match(route.getPattern(), path)) {
+                continue;
+            }
+            if (route.getMethod() != null && !route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+
+            long retryAfterMillis = rateLimiter.tryAcquire(entry.getKey(), resolveKey(route, path, request));
+            if (retryAfterMillis > 0) {
+                reject(response, retryAfterMillis);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equalsIgnoreCase(request.getMethod());  // CORS preflight
+    }
+
+    private String resolveKey(RateLimitProperties.Route route, String path, HttpServletRequest request) {
+        String key = switch (route.getKey()) {
+            case ORG -> request.getParameter("orgId");
+            case EMAIL -> {
+                String email = route.getPattern().contains("{email}")
+                        ? PATH_MATCHER.extractUriTemplateVariables(route.getPattern(), path).get("email")
+                        : request.getParameter("email");
+                yield email != null ? email.toLowerCase() : null;
+            }
+            case IP -> null;
+        };
+        return key != null ? key : clientIpResolver.clientIp(request);
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterMillis) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf((retryAfterMillis + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests\"}");
+    }
+}
@@ -0,0 +1,66 @@
+package com.quad.services.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Authenticates backend callers (API gateway, other QUAD services) by "X-Service-Key".
+ *
+ * A key from quad.security.service-keys (several, for rotation) makes the request
+ * authenticated as "service" with ROLE_SERVICE. Keys are compared as SHA-256 digests
+ * in constant time. Unknown keys leave the request anonymous.
+ */
+@Slf4j
+public class ServiceCredentialFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Service-Key";
+    public static final String ROLE = "SERVICE";
+
+    private final List<byte[]> keyDigests;
+
+    public ServiceCredentialFilter(String serviceKeys) {
+        this.keyDigests = Arrays.stream(serviceKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .map(ServiceCredentialFilter::sha256)
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key != null && !keyDigests.isEmpty()) {
+            byte[] digest = sha256(key);
+            if (keyDigests.stream().anyMatch(known -> MessageDigest.isEqual(known, digest))) {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "service", null, List.of(new SimpleGrantedAuthority("ROLE_" + ROLE))));
+            } else {
+                log.debug("Rejected service key");
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.quad.services.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token families, checked for every authenticated request.
+ *
+ * An access token is only usable for jwt.expiration, so a revoked family only has to be
+ * remembered for that long (plus clock skew) - the set holds recent revocations only and
+ * stays small. Refresh tokens are checked against the database on refresh.
+ *
+ * - Snapshot: immutable UuidHashSet loaded from quad_revoked_token_families every sync
+ *   interval, so revocations made by other instances apply within one interval
+ * - Local revocations are visible immediately on this instance (overlay map until they
+ *   age out of the window)
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quad_revoked_token_families (family_id, revoked_at) VALUES (?, ?) ON CONFLICT (family_id) DO NOTHING";
+    private static final String RECENT_SQL =
+            "SELECT family_id FROM quad_revoked_token_families WHERE revoked_at > ?";
+    private static final String PURGE_SQL =
+            "DELETE FROM quad_revoked_token_families WHERE revoked_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration window;
+
+    private volatile UuidHashSet snapshot = UuidHashSet.EMPTY;
+    private final Map<UUID, Long> local = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.expiration}") long accessTokenMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.window = Duration.ofMillis(accessTokenMillis).plus(CLOCK_SKEW);
+        Gauge.builder("quad.auth.revoked_families", this, list -> list.snapshot.size() + list.local.size())
+                .description("Token families in the in-memory revocation set")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(UUID familyId) {
+        return snapshot.contains(familyId) || local.containsKey(familyId);
+    }
+
+    /**
+     * Revoke a family on every instance (immediately here, within one sync interval elsewhere).
+     */
+    public void revoke(UUID familyId) {
+        local.put(familyId, System.currentTimeMillis());
+        jdbcTemplate.update(INSERT_SQL, familyId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${quad.auth.revocation.sync-ms:10000}")
+    public void sync() {
+        try {
+            Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(window));
+            snapshot = new UuidHashSet(jdbcTemplate.queryForList(RECENT_SQL, UUID.class, since));
+
+            long cutoff = System.currentTimeMillis() - window.toMillis();
+            local.values().removeIf(revokedAt -> revokedAt < cutoff);
+        } catch (RuntimeException e) {
+            log.warn("Token revocation sync failed, keeping previous set: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quad.auth.revocation.purge-ms:3600000}")
+    public void purge() {
+        try {
+            jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(LocalDateTime.now().minus(window).minus(window)));
+        } catch (RuntimeException e) {
+            log.warn("Token revocation purge failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.quad.services.security;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Immutable open-addressing set of UUIDs stored as two long arrays (16 bytes per slot,
+ * load factor <= 0.5, no per-entry objects). contains() is O(1) and allocation-free.
+ * The all-zero UUID marks an empty slot and is never a member.
+ */
+final class UuidHashSet {
+
+    static final UuidHashSet EMPTY = new UuidHashSet(java.util.List.of());
+
+    private final long[] most;
+    private final long[] least;
+    private final int mask;
+    private final int size;
+
+    UuidHashSet(Collection<UUID> values) {
+        int capacity = Integer.highestOneBit(Math.max(4, values.size() * 2 - 1)) << 1;
+        most = new long[capacity];
+        least = new long[capacity];
+        mask = capacity - 1;
+
+        int count = 0;
+        for (UUID value : values) {
+            long hi = value.getMostSignificantBits();
+            long lo = value.getLeastSignificantBits();
+            if (hi == 0 && lo == 0) {
+                continue;
+            }
+            int slot = slot(hi, lo);
+            while (most[slot] != 0 || least[slot] != 0) {
+                if (most[slot] == hi && least[slot] == lo) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (most[slot] == 0 && least[slot] == 0) {
+                most[slot] = hi;
+                least[slot] = lo;
+                count++;
+            }
+        }
+        size = count;
+    }
+
+    boolean contains(UUID value) {
+        long hi = value.getMostSignificantBits();
+        long lo = value.getLeastSignificantBits();
+        int slot = slot(hi, lo);
+        while (most[slot] != 0 || least[slot] != 0) {
+            if (most[slot] == hi && least[slot] == lo) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long hi, long lo) {
+        long h = hi ^ lo;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -0,0 +1,119 @@
+package com.quad.services.service;
+
+import com.quad.services.config.CacheWeigher;
+import com.quad.services.dto.ActivityTypeCount;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Fixed-capacity ring of a user's most recent activity events (oldest overwritten first).
+ *
+ * Arrays are allocated up front, so the retained size is constant and the
+ * byte-bounded userHistory cache can weigh an entry once on insert.
+ *
+ * A ring created by a write starts without the user's persisted history; the first
+ * read merges it in (mergeHistory), so writes never wait for the DB.
+ */
+final class ActivityRing implements CacheWeigher.Weighable {
+
+    private static final int AVERAGE_TEXT_BYTES = 48;  // Activity type / outcome strings
+
+    private final String[] activityTypes;
+    private final String[] outcomes;
+    private final long[] epochMillis;
+    private int next;
+    private int size;
+    private volatile boolean historyLoaded;
+
+    ActivityRing(int capacity) {
+        activityTypes = new String[capacity];
+        outcomes = new String[capacity];
+        epochMillis = new long[capacity];
+    }
+
+    record Event(String activityType, String outcome, long epochMillis) {
+    }
+
+    boolean historyLoaded() {
+        return historyLoaded;
+    }
+
+    /**
+     * Put persisted history (oldest first) in front of the events recorded since the ring was
+     * created. Rows with the type and time of a recorded event were flushed from this ring
+     * and are skipped. Only the first call has an effect.
+     */
+    synchronized void mergeHistory(List<Event> history) {
+        if (historyLoaded) {
+            return;
+        }
+        int capacity = activityTypes.length;
+        int oldest = size < capacity ? 0 : next;
+        List<Event> recorded = new ArrayList<>(size);
+        Set<String> recordedKeys = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            int slot = (oldest + i) % capacity;
+            recorded.add(new Event(activityTypes[slot], outcomes[slot], epochMillis[slot]));
+            recordedKeys.add(activityTypes[slot] + '@' + epochMillis[slot]);
+        }
+
+        List<Event> merged = new ArrayList<>(history.size() + recorded.size());
+        for (Event event : history) {
+            if (!recordedKeys.contains(event.activityType() + '@' + event.epochMillis())) {
+                merged.add(event);
+            }
+        }
+        merged.addAll(recorded);
+
+        next = 0;
+        size = 0;
+        for (Event event : merged.subList(Math.max(0, merged.size() - capacity), merged.size())) {
+            add(event.activityType(), event.outcome(), event.epochMillis());
+        }
+        historyLoaded = true;
+    }
+
+    synchronized void add(String activityType, String outcome, long occurredAtMillis) {
+        activityTypes[next] = activityType;
+        outcomes[next] = outcome;
+        epochMillis[next] = occurredAtMillis;
+        next = (next + 1) % activityTypes.length;
+        size = Math.min(size + 1, activityTypes.length);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Most frequent activity types at or after sinceMillis; ties go to the most recently seen.
+     */
+    synchronized List<ActivityTypeCount> topActivityTypes(long sinceMillis, int limit) {
+        Map<String, int[]> counts = new HashMap<>();
+        Map<String, Long> lastSeen = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (epochMillis[i] < sinceMillis) {
+                continue;
+            }
+            counts.computeIfAbsent(activityTypes[i], type -> new int[1])[0]++;
+            lastSeen.merge(activityTypes[i], epochMillis[i], Math::max);
+        }
+
+        return counts.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<String, int[]>>comparingInt(entry -> entry.getValue()[0]).reversed()
+                        .thenComparing(entry -> lastSeen.get(entry.getKey()), Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new ActivityTypeCount(entry.getKey(), entry.getValue()[0],
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSeen.get(entry.getKey())), ZoneId.systemDefault())))
+                .toList();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        int capacity = activityTypes.length;
+        return 64 + 3 * 16 + (long) capacity * (4 + 4 + 8 + 2 * AVERAGE_TEXT_BYTES);
+    }
+}
@@ -0,0 +1,94 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.ActivityTypeRuleCount;
+import com.quad.services.dto.ActivityTypeSummary;
+import com.quad.services.repository.IndustryDefaultRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Activity types per industry, precomputed from one GROUP BY over quad_industry_defaults.
+ *
+ * The whole catalog is an immutable snapshot swapped atomically on refresh (startup,
+ * every refresh interval, and when rules are cleared), so lookups are plain map reads.
+ * Until the first successful load the catalog is empty and isKnownActivityType answers true
+ * (fail open), so a cold or unreachable DB never turns valid requests into 400s.
+ *
+ * Each refresh also counts the distinct rule texts and lets RuleTextDictionary compact
+ * when edited or deleted rules have left it mostly dead texts.
+ */
+@Service
+@Slf4j
+public class ActivityTypeCatalog {
+
+    private record Snapshot(Map<String, List<ActivityTypeSummary>> byIndustry, Set<String> activityTypes) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Set.of());
+    }
+
+    private final IndustryDefaultRepository industryDefaultRepository;
+    private final RuleTextDictionary ruleTextDictionary;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ActivityTypeCatalog(IndustryDefaultRepository industryDefaultRepository,
+                               RuleTextDictionary ruleTextDictionary,
+                               PlatformTransactionManager transactionManager) {
+        this.industryDefaultRepository = industryDefaultRepository;
+        this.ruleTextDictionary = ruleTextDictionary;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${quad.rules.catalog.refresh-ms:300000}", initialDelayString = "${quad.rules.catalog.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            List<ActivityTypeRuleCount> rows = readOnlyTransaction.execute(status ->
+                    industryDefaultRepository.countRulesByIndustryAndActivityType());
+
+            Map<String, List<ActivityTypeSummary>> byIndustry = new TreeMap<>();
+            Set<String> activityTypes = new HashSet<>();
+            for (ActivityTypeRuleCount row : rows) {
+                byIndustry.computeIfAbsent(row.getIndustry(), industry -> new ArrayList<>())
+                        .add(new ActivityTypeSummary(row.getActivityType(), row.getRuleCount()));
+                activityTypes.add(row.getActivityType());
+            }
+            byIndustry.replaceAll((industry, types) -> List.copyOf(types));
+
+            snapshot = new Snapshot(Collections.unmodifiableMap(byIndustry), Set.copyOf(activityTypes));
+            log.info("Activity type catalog loaded: {} industries, {} activity types", byIndustry.size(), activityTypes.size());
+
+            Long liveTexts = readOnlyTransaction.execute(status -> industryDefaultRepository.countDistinctRuleTexts());
+            ruleTextDictionary.compactIfSparse(liveTexts);
+        } catch (RuntimeException e) {
+            log.warn("Activity type catalog refresh failed, keeping previous catalog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Activity types with rule counts, keyed by industry (sorted).
+     */
+    public Map<String, List<ActivityTypeSummary>> byIndustry() {
+        return snapshot.byIndustry();
+    }
+
+    public List<ActivityTypeSummary> forIndustry(String industry) {
+        return snapshot.byIndustry().getOrDefault(industry, List.of());
+    }
+
+    /**
+     * @return false only if the catalog is loaded and no industry defines this activity type
+     */
+    public boolean isKnownActivityType(String activityType) {
+        Snapshot current = snapshot;
+        return current.activityTypes().isEmpty() || current.activityTypes().contains(activityType);
+    }
+}
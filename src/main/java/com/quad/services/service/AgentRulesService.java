@@ -1,28 +1,69 @@
 package com.quad.services.service;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.quad.services.config.CacheWeigher;
+import com.quad.services.config.Workload;
+import com.quad.services.config.WorkloadContext;
 import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.dto.OrgContext;
 import com.quad.services.entity.IndustryDefault;
-import com.quad.services.entity.Organization;
+import com.quad.services.exception.OrganizationNotFoundException;
 import com.quad.services.repository.IndustryDefaultRepository;
 import com.quad.services.repository.OrganizationRepository;
+import com.quad.services.resilience.CircuitBreaker;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for fetching and merging agent rules.
  *
  * Flow:
- * 1. Get org's industry from Organization table
+ * 1. Get org's industry from the cached OrgContext
  * 2. Fetch industry defaults from IndustryDefault table
  * 3. (Future) Fetch org customizations and merge
  * 4. Return merged rules grouped by DO/DONT
+ *
+ * Caching (stale-while-revalidate):
+ * - Entries older than the refresh interval are still served while a background
+ *   reload runs; a failed reload keeps the last known good value and is retried
+ *   on the next read; a reload that finds the org deleted drops the entry
+ * - Entries are only dropped after max-stale, so a DB outage shorter than that
+ *   is invisible to clients with warm keys
+ * - All DB access goes through a circuit breaker; when it is open, cache misses
+ *   fail fast with BackendUnavailableException (503) instead of blocking on JPA
+ *
+ * Sizing:
+ * - Bounded by estimated bytes (quad.cache.agent-rules.max-bytes), not entry count
+ * - Tenant fairness: one org (or the shared industry-only keys) may hold at most
+ *   tenant-max-share of the budget; over that, its own coldest entries are evicted
+ *   so a chatty org cannot push every other tenant out of the cache
+ * - Per-tenant bytes are counters kept by the weigher (+) and the removal listener (-);
+ *   only a tenant over its share triggers a trim, which walks the eviction order lazily
+ *   and stops once enough of that tenant's bytes are selected
  */
 @Service
+@Slf4j
 public class AgentRulesService {
 
     @Autowired
@@ -31,74 +72,352 @@ public class AgentRulesService {
     @Autowired
     private OrganizationRepository organizationRepository;
 
+    @Autowired
+    private OrgContextService orgContextService;
+
+    @Autowired
+    private RuleTextDictionary ruleTextDictionary;
+
+    @Autowired
+    private ActivityTypeCatalog activityTypeCatalog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${quad.rules.cache.refresh-minutes:5}")
+    private long refreshMinutes;
+
+    @Value("${quad.rules.cache.max-stale-minutes:60}")
+    private long maxStaleMinutes;
+
+    @Value("${quad.cache.agent-rules.max-bytes:50331648}")
+    private long maxBytes;
+
+    @Value("${quad.cache.agent-rules.tenant-max-share:0.25}")
+    private double tenantMaxShare;
+
+    @Value("${quad.rules.circuit.failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${quad.rules.circuit.open-ms:10000}")
+    private long circuitOpenMillis;
+
+    // Clock and executor for refreshes; replaced in tests to age entries and refresh synchronously
+    Ticker ticker = Ticker.systemTicker();
+    Executor refreshExecutor = ForkJoinPool.commonPool();
+
+    private final Map<Object, AtomicLong> tenantBytes = new ConcurrentHashMap<>();
+    private final Map<RulesCacheKey, WeighedValue> entryWeights = new ConcurrentHashMap<>();
+    private final Set<Object> tenantsBeingTrimmed = ConcurrentHashMap.newKeySet();
+    private long tenantLimitBytes;
+
+    private CircuitBreaker circuitBreaker;
+    private TransactionTemplate readOnlyTransaction;
+    private LoadingCache<RulesCacheKey, AgentRulesResponse> rulesCache;
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void initCache() {
+        circuitBreaker = new CircuitBreaker("agent-rules-db", circuitFailureThreshold, circuitOpenMillis);
+
+        // Loads run in a read-only transaction so they are routed to a replica when configured
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        tenantLimitBytes = (long) (maxBytes * tenantMaxShare);
+        rulesCache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(this::weighAndCount)
+                .removalListener(this::onRemoval)
+                .refreshAfterWrite(refreshMinutes, TimeUnit.MINUTES)
+                .expireAfterWrite(maxStaleMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .ticker(ticker)
+                .executor(refreshExecutor)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public AgentRulesResponse load(RulesCacheKey key) {
+                        return loadRules(key);
+                    }
+
+                    @Override
+                    public AgentRulesResponse reload(RulesCacheKey key, AgentRulesResponse oldValue) {
+                        try {
+                            return loadRules(key);
+                        } catch (OrganizationNotFoundException e) {
+                            return null;  // org deleted: drop the entry instead of serving it until max-stale
+                        }
+                    }
+                });
+
+        // Expose through the CacheManager so @CacheEvict("agentRules") and cache metrics see it
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            caffeineCacheManager.registerCustomCache("agentRules",
+                    (com.github.benmanes.caffeine.cache.Cache<Object, Object>) (Object) rulesCache);
+        }
+    }
+
     /**
      * Get merged rules for an organization and activity type.
-     * CACHED: 5 minutes TTL - rules don't change often.
+     * CACHED: refreshed in the background after 5 minutes, served stale for up to 60 minutes.
      *
      * @param orgId        Organization UUID
      * @param activityType Activity type (e.g., "add_api_endpoint")
      * @return Merged rules response
+     * @throws OrganizationNotFoundException if the organization does not exist
+     * @throws com.quad.services.exception.BackendUnavailableException if the DB is unavailable and nothing is cached
      */
-    @Cacheable(value = "agentRules", key = "#orgId + '-' + #activityType")
     public AgentRulesResponse getMergedRules(UUID orgId, String activityType) {
-        // 1. Get organization's industry
-        Organization org = organizationRepository.findById(orgId)
-                .orElseThrow(() -> new RuntimeException("Organization not found: " + orgId));
+        return rulesCache.get(RulesCacheKey.forOrg(orgId, activityType));
+    }
 
-        String industry = org.getIndustry();
-        if (industry == null || industry.isEmpty()) {
-            industry = "general";  // Default fallback
+    /**
+     * Get rules by industry directly (without org lookup).
+     * CACHED: same policy as getMergedRules.
+     * Useful for testing or when industry is known.
+     */
+    public AgentRulesResponse getRulesByIndustry(String industry, String activityType) {
+        return rulesCache.get(RulesCacheKey.forIndustry(industry, activityType));
+    }
+
+    /**
+     * Clear cache when rules are updated.
+     * Call this when admin updates industry defaults or org customizations.
+     */
+    @CacheEvict(value = "agentRules", allEntries = true)
+    public void clearRulesCache() {
+        // Cache will be cleared by Spring; rule counts may have changed too
+        activityTypeCatalog.refresh();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Most frequently used cache entries, hottest first (for warm-restart snapshots).
+     */
+    public Map<RulesCacheKey, AgentRulesResponse> hottestRules(int limit) {
+        return rulesCache.policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElseGet(() -> Map.copyOf(rulesCache.asMap()));
+    }
+
+    /**
+     * Seed the cache with previously snapshotted rules, minus keys whose org no longer exists.
+     * Seeded entries are served immediately and revalidated by refreshAfterWrite on their first read
+     * after the refresh interval, like any other entry: a booting instance does not send the whole
+     * snapshot to the DB at once. If the org check fails, everything is seeded (stale-while-revalidate)
+     * and deleted orgs are dropped on their first refresh.
+     *
+     * @return number of entries seeded
+     */
+    public int warmRules(Map<RulesCacheKey, AgentRulesResponse> snapshot) {
+        Set<UUID> snapshotOrgs = new HashSet<>();
+        snapshot.keySet().forEach(key -> {
+            if (key.isOrgKey()) {
+                snapshotOrgs.add(key.orgId());
+            }
+        });
+
+        Set<UUID> liveOrgs;
+        try {
+            liveOrgs = snapshotOrgs.isEmpty() ? Set.of() : circuitBreaker.call(() -> WorkloadContext.call(
+                    Workload.RULES_READ,
+                    () -> readOnlyTransaction.execute(status -> organizationRepository.findExistingIds(snapshotOrgs))));
+        } catch (RuntimeException e) {
+            log.warn("Could not check snapshot orgs, seeding all of them: {}", e.getMessage());
+            liveOrgs = snapshotOrgs;
         }
 
-        // 2. Fetch industry defaults
-        List<IndustryDefault> defaults = industryDefaultRepository
-                .findByIndustryAndActivityType(industry, activityType);
+        Map<RulesCacheKey, AgentRulesResponse> seeded = new LinkedHashMap<>(snapshot.size() * 2);
+        for (Map.Entry<RulesCacheKey, AgentRulesResponse> entry : snapshot.entrySet()) {
+            RulesCacheKey key = entry.getKey();
+            if (!key.isOrgKey() || liveOrgs.contains(key.orgId())) {
+                seeded.put(key, entry.getValue());
+            }
+        }
+        rulesCache.putAll(seeded);
+        return seeded.size();
+    }
 
-        // 3. Group rules by type (DO / DONT)
-        Map<String, List<String>> rules = new HashMap<>();
-        rules.put("DO", new ArrayList<>());
-        rules.put("DONT", new ArrayList<>());
+    public CacheStats rulesCacheStats() {
+        return rulesCache.stats();
+    }
+
+    private AgentRulesResponse loadRules(RulesCacheKey key) {
+        // Runs on Caffeine's refresh threads too, so the rules-read pool is bound here rather than by @Bulkhead
+        return circuitBreaker.call(() -> WorkloadContext.call(Workload.RULES_READ,
+                () -> readOnlyTransaction.execute(status -> key.isOrgKey()
+                        ? loadMergedRules(key.orgId(), key.activityType())
+                        : loadIndustryRules(key.industry(), key.activityType()))));
+    }
 
-        for (IndustryDefault rule : defaults) {
-            String ruleType = rule.getRuleType();
-            if ("DO".equals(ruleType) || "DONT".equals(ruleType)) {
-                rules.get(ruleType).add(rule.getRuleText());
+    /**
+     * Weigher that also adds the entry to its tenant's byte count. Runs inside the cache's
+     * write, so an over-share tenant is trimmed asynchronously (the cache may not be modified here).
+     */
+    private int weighAndCount(RulesCacheKey key, AgentRulesResponse value) {
+        int weight = weigh(key, value);
+        // Replacing a value applies the difference (a same-instance put gets no removal notification)
+        WeighedValue previous = entryWeights.put(key, new WeighedValue(value, weight));
+        long delta = weight - (previous != null ? previous.weight() : 0);
+        Object tenant = tenantOf(key);
+        tenantBytesOf(tenant).addAndGet(delta);
+        scheduleTrimIfOverShare(tenant);
+        return weight;
+    }
+
+    private void scheduleTrimIfOverShare(Object tenant) {
+        if (tenantBytesOf(tenant).get() > tenantLimitBytes && tenantsBeingTrimmed.add(tenant)) {
+            ForkJoinPool.commonPool().execute(() -> trimTenant(tenant));
+        }
+    }
+
+    /**
+     * Subtracts a removed entry from its tenant, unless a newer value for the key was already counted
+     * (removal notifications are asynchronous; replacements were settled by the weigher).
+     */
+    private void onRemoval(RulesCacheKey key, AgentRulesResponse value, RemovalCause cause) {
+        if (key == null) {
+            return;
+        }
+        WeighedValue tracked = entryWeights.get(key);
+        if (tracked != null && tracked.value() == value && entryWeights.remove(key, tracked)) {
+            tenantBytesOf(tenantOf(key)).addAndGet(-tracked.weight());
+        }
+    }
+
+    /**
+     * Evict a tenant's coldest entries until it is back under its share of the byte budget.
+     * Victims are subtracted here rather than by the (asynchronous) removal listener, so the
+     * re-check at the end sees the trimmed count; it catches entries added while this ran.
+     */
+    private void trimTenant(Object tenant) {
+        boolean evicted = false;
+        try {
+            long excess = tenantBytesOf(tenant).get() - tenantLimitBytes;
+            if (excess <= 0) {
+                return;
             }
+            List<RulesCacheKey> victims = rulesCache.policy().eviction().orElseThrow().coldest(entries -> {
+                List<RulesCacheKey> keys = new ArrayList<>();
+                long selected = 0;
+                Iterator<Policy.CacheEntry<RulesCacheKey, AgentRulesResponse>> tenantEntries = entries
+                        .filter(entry -> tenant.equals(tenantOf(entry.getKey())))
+                        .iterator();
+                while (selected < excess && tenantEntries.hasNext()) {
+                    Policy.CacheEntry<RulesCacheKey, AgentRulesResponse> entry = tenantEntries.next();
+                    keys.add(entry.getKey());
+                    selected += entry.weight();
+                }
+                return keys;
+            });
+            for (RulesCacheKey key : victims) {
+                WeighedValue tracked = entryWeights.get(key);
+                if (tracked != null && entryWeights.remove(key, tracked)) {
+                    tenantBytesOf(tenant).addAndGet(-tracked.weight());
+                }
+            }
+            rulesCache.invalidateAll(victims);
+            evicted = !victims.isEmpty();
+        } finally {
+            tenantsBeingTrimmed.remove(tenant);
+        }
+        if (evicted) {
+            scheduleTrimIfOverShare(tenant);
         }
+    }
 
-        // 4. Return response
-        return new AgentRulesResponse(activityType, industry, rules);
+    private AtomicLong tenantBytesOf(Object tenant) {
+        return tenantBytes.computeIfAbsent(tenant, t -> new AtomicLong());
     }
 
     /**
-     * Get rules by industry directly (without org lookup).
-     * CACHED: 5 minutes TTL.
-     * Useful for testing or when industry is known.
+     * Bytes currently attributed to a tenant (org UUID, or "industry" for the shared keys).
      */
-    @Cacheable(value = "agentRules", key = "'industry-' + #industry + '-' + #activityType")
-    public AgentRulesResponse getRulesByIndustry(String industry, String activityType) {
+    long bytesOfTenant(Object tenant) {
+        AtomicLong bytes = tenantBytes.get(tenant);
+        return bytes != null ? bytes.get() : 0;
+    }
+
+    private record WeighedValue(AgentRulesResponse value, int weight) {
+    }
+
+    private static Object tenantOf(RulesCacheKey key) {
+        return key.isOrgKey() ? key.orgId() : "industry";
+    }
+
+    private AgentRulesResponse loadMergedRules(UUID orgId, String activityType) {
+        // 1. Get organization's industry (defaults to "general")
+        OrgContext org = orgContextService.get(orgId);
+        if (org == null) {
+            throw new OrganizationNotFoundException(orgId);
+        }
+        String industry = org.getIndustry();
+
+        // 2. Fetch industry defaults
         List<IndustryDefault> defaults = industryDefaultRepository
                 .findByIndustryAndActivityType(industry, activityType);
 
-        Map<String, List<String>> rules = new HashMap<>();
-        rules.put("DO", defaults.stream()
-                .filter(r -> "DO".equals(r.getRuleType()))
-                .map(IndustryDefault::getRuleText)
-                .collect(Collectors.toList()));
-        rules.put("DONT", defaults.stream()
-                .filter(r -> "DONT".equals(r.getRuleType()))
-                .map(IndustryDefault::getRuleText)
-                .collect(Collectors.toList()));
+        // 3. Group rules by type (DO / DONT) and return response
+        return toResponse(activityType, industry, defaults, ruleTextDictionary);
+    }
 
-        return new AgentRulesResponse(activityType, industry, rules);
+    private AgentRulesResponse loadIndustryRules(String industry, String activityType) {
+        List<IndustryDefault> defaults = industryDefaultRepository
+                .findByIndustryAndActivityType(industry, activityType);
+
+        return toResponse(activityType, industry, defaults, ruleTextDictionary);
     }
 
     /**
-     * Clear cache when rules are updated.
-     * Call this when admin updates industry defaults or org customizations.
+     * Group rules by type (DO / DONT) as IDs into the shared rule text dictionary,
+     * highest priority first (ties keep DB order). Shared with ReactiveAgentRulesService.
      */
-    @CacheEvict(value = "agentRules", allEntries = true)
-    public void clearRulesCache() {
-        // Cache will be cleared by Spring
+    static AgentRulesResponse toResponse(String activityType, String industry, List<IndustryDefault> defaults,
+                                         RuleTextDictionary ruleTextDictionary) {
+        RuleTextDictionary.Generation texts = ruleTextDictionary.current();
+        List<IndustryDefault> ordered = new ArrayList<>(defaults);
+        ordered.sort(Comparator.comparingInt(AgentRulesService::priorityOf).reversed());
+
+        int[] doIds = new int[ordered.size()];
+        int[] doPriorities = new int[ordered.size()];
+        int[] dontIds = new int[ordered.size()];
+        int[] dontPriorities = new int[ordered.size()];
+        int doCount = 0;
+        int dontCount = 0;
+
+        for (IndustryDefault rule : ordered) {
+            if ("DO".equals(rule.getRuleType())) {
+                doPriorities[doCount] = priorityOf(rule);
+                doIds[doCount++] = texts.intern(rule.getRuleText());
+            } else if ("DONT".equals(rule.getRuleType())) {
+                dontPriorities[dontCount] = priorityOf(rule);
+                dontIds[dontCount++] = texts.intern(rule.getRuleText());
+            }
+        }
+
+        return new AgentRulesResponse(activityType, industry,
+                texts.view(Arrays.copyOf(doIds, doCount)), Arrays.copyOf(doPriorities, doCount),
+                texts.view(Arrays.copyOf(dontIds, dontCount)), Arrays.copyOf(dontPriorities, dontCount));
+    }
+
+    /**
+     * Cache weight of a rules response. Dictionary views count only their ID arrays (the
+     * texts are shared); plain lists are counted in full. Shared with ReactiveAgentRulesService.
+     */
+    static int weigh(RulesCacheKey key, AgentRulesResponse rules) {
+        long bytes = 32 + CacheWeigher.estimate(rules.getActivityType()) + CacheWeigher.estimate(rules.getIndustry())
+                + CacheWeigher.estimate(rules.getDoRules()) + CacheWeigher.estimate(rules.getDontRules())
+                + CacheWeigher.estimate(rules.getDoPriorities()) + CacheWeigher.estimate(rules.getDontPriorities());
+        return (int) Math.min(Integer.MAX_VALUE, CacheWeigher.weigh(key, null) + bytes);
+    }
+
+    private static int priorityOf(IndustryDefault rule) {
+        return rule.getPriority() != null ? rule.getPriority() : 100;
     }
 }
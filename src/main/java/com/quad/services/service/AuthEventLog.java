@@ -0,0 +1,406 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AuthEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only authentication audit stream (quad_auth_events).
+ *
+ * Request path: record() appends to a lock-free queue (ConcurrentLinkedQueue plus an
+ * atomic size) and returns; no DB work, no lock.
+ *
+ * Writer: one background thread drains up to batch-size events per write and persists
+ * them with a single COPY ... FROM STDIN (multi-row batch INSERT when the driver is not
+ * PostgreSQL). A full batch wakes the writer early; otherwise it flushes every flush-ms.
+ * A failed write is retried with backoff, keeping the batch. A data error (SQLState class
+ * 22/23, e.g. a value too long for its column) would fail on every retry, so the batch is
+ * split in halves instead until the bad rows are isolated; those are logged and dropped
+ * (quad.audit.events.rejected) and the rest is persisted.
+ *
+ * Backpressure: the buffer is bounded (capacity). When it is full, record() wakes the
+ * writer and waits up to offer-wait-ms for room, then drops the event (counted in
+ * quad.audit.events.dropped). Login never blocks longer than that on the audit trail.
+ *
+ * Shutdown: @PreDestroy stops intake and lets the writer drain the buffer before the
+ * DataSource closes.
+ *
+ * Attribution: failed logins and verifications are recorded with only the email (the
+ * request never authenticated). The writer looks the emails of each batch up in
+ * quad_users (one index-only query) and fills in user_id and org_id, so the org's audit
+ * view includes attempts against its accounts. Emails without an account stay unattributed.
+ *
+ * Partitions: one per day, created ahead by partition-days-ahead and dropped after
+ * retention-days (daily job). Rows that landed in the default partition are deleted
+ * after the same retention.
+ */
+@Service
+@Slf4j
+public class AuthEventLog {
+
+    private static final String COPY_SQL =
+            "COPY quad_auth_events (occurred_at, event_type, user_id, org_id, email, client_ip, detail) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL =
+            "INSERT INTO quad_auth_events (occurred_at, event_type, user_id, org_id, email, client_ip, detail) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String RECENT_SQL =
+            "SELECT occurred_at, event_type, user_id, org_id, email, client_ip, detail FROM quad_auth_events " +
+            "WHERE org_id = ? AND occurred_at >= ? AND (CAST(? AS VARCHAR) IS NULL OR event_type = ?) " +
+            "ORDER BY occurred_at DESC LIMIT ?";
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'quad_auth_events'";
+    private static final String USERS_BY_EMAIL_SQL =
+            "SELECT lower(email) AS email, id, org_id FROM quad_users WHERE lower(email) = ANY (?)";
+    private static final String PURGE_DEFAULT_SQL =
+            "DELETE FROM quad_auth_events_default WHERE occurred_at < ?";
+    private static final String PARTITION_PREFIX = "quad_auth_events_p";
+    private static final DateTimeFormatter PARTITION_DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushNanos;
+    private final long offerWaitNanos;
+    private final int retentionDays;
+    private final int partitionDaysAhead;
+
+    private final ConcurrentLinkedQueue<AuthEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter persisted;
+    private final Counter rejected;
+    private final Counter writeFailures;
+
+    public AuthEventLog(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${quad.audit.buffer-capacity:50000}") int capacity,
+                        @Value("${quad.audit.batch-size:2000}") int batchSize,
+                        @Value("${quad.audit.flush-ms:1000}") long flushMillis,
+                        @Value("${quad.audit.offer-wait-ms:5}") long offerWaitMillis,
+                        @Value("${quad.audit.retention-days:90}") int retentionDays,
+                        @Value("${quad.audit.partition-days-ahead:3}") int partitionDaysAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        this.offerWaitNanos = TimeUnit.MILLISECONDS.toNanos(offerWaitMillis);
+        this.retentionDays = retentionDays;
+        this.partitionDaysAhead = partitionDaysAhead;
+
+        this.accepted = Counter.builder("quad.audit.events.accepted").register(meterRegistry);
+        this.dropped = Counter.builder("quad.audit.events.dropped")
+                .description("Audit events dropped because the buffer stayed full (writer behind or DB down)")
+                .register(meterRegistry);
+        this.persisted = Counter.builder("quad.audit.events.persisted").register(meterRegistry);
+        this.rejected = Counter.builder("quad.audit.events.rejected")
+                .description("Audit events the database refused (data errors); logged and dropped")
+                .register(meterRegistry);
+        this.writeFailures = Counter.builder("quad.audit.write.failures").register(meterRegistry);
+        Gauge.builder("quad.audit.buffer.size", size, AtomicInteger::get).register(meterRegistry);
+
+        this.writer = new Thread(this::writeLoop, "auth-event-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            maintainPartitions();
+        } catch (RuntimeException e) {
+            log.warn("Auth event partition maintenance failed at startup: {}", e.getMessage());
+        }
+        writer.start();
+    }
+
+    /**
+     * Queue an event for persistence. Never throws; returns false if it was dropped.
+     */
+    public boolean record(AuthEvent event) {
+        if (!running || !reserve()) {
+            dropped.increment();
+            return false;
+        }
+        buffer.offer(event);
+        accepted.increment();
+        if (size.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Recent events of one organization, newest first (replica when configured).
+     * Events still in the buffer (up to flush-ms old) are not included.
+     */
+    public List<AuthEvent> recentForOrg(UUID orgId, LocalDateTime since, AuthEvent.Type type, int limit) {
+        String typeName = type != null ? type.name() : null;
+        return readOnlyTransaction.execute(status -> jdbcTemplate.query(RECENT_SQL, (rs, rowNum) -> new AuthEvent(
+                rs.getTimestamp("occurred_at").toLocalDateTime(),
+                AuthEvent.Type.valueOf(rs.getString("event_type")),
+                rs.getObject("user_id", UUID.class),
+                rs.getObject("org_id", UUID.class),
+                rs.getString("email"),
+                rs.getString("client_ip"),
+                rs.getString("detail")), orgId, Timestamp.valueOf(since), typeName, typeName, limit));
+    }
+
+    /**
+     * Create the next partition-days-ahead daily partitions and drop those past retention.
+     */
+    @Scheduled(cron = "${quad.audit.partition-cron:0 5 0 * * *}")
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i <= partitionDaysAhead; i++) {
+            LocalDate day = today.plusDays(i);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + day.format(PARTITION_DAY) +
+                        " PARTITION OF quad_auth_events FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+            } catch (RuntimeException e) {
+                // e.g. rows for that day already in the default partition
+                log.warn("Could not create auth event partition for {}: {}", day, e.getMessage());
+            }
+        }
+
+        LocalDate cutoff = today.minusDays(retentionDays);
+        for (String partition : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+            LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_DAY);
+            if (day.isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped auth event partition {} (older than {} days)", partition, retentionDays);
+            }
+        }
+
+        int purged = jdbcTemplate.update(PURGE_DEFAULT_SQL, Timestamp.valueOf(cutoff.atStartOfDay()));
+        if (purged > 0) {
+            log.info("Deleted {} auth events older than {} days from the default partition", purged, retentionDays);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (size.get() > 0) {
+            log.warn("Shutdown with {} auth events not persisted", size.get());
+        }
+    }
+
+    /**
+     * Claim a buffer slot, waiting up to offer-wait-ms for the writer to make room.
+     */
+    private boolean reserve() {
+        if (size.incrementAndGet() <= capacity) {
+            return true;
+        }
+        size.decrementAndGet();
+        LockSupport.unpark(writer);
+        long deadline = System.nanoTime() + offerWaitNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(100_000);
+            if (size.incrementAndGet() <= capacity) {
+                return true;
+            }
+            size.decrementAndGet();
+        }
+        return false;
+    }
+
+    private void writeLoop() {
+        List<AuthEvent> batch = new ArrayList<>(batchSize);
+        long backoffMillis = 0;
+        while (running || !buffer.isEmpty() || !batch.isEmpty()) {
+            if (running && batch.isEmpty() && size.get() < batchSize) {
+                LockSupport.parkNanos(flushNanos);
+            }
+            if (batch.isEmpty()) {
+                AuthEvent event;
+                while (batch.size() < batchSize && (event = buffer.poll()) != null) {
+                    batch.add(event);
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+            }
+
+            try {
+                writeSplitting(batch);
+                backoffMillis = 0;
+            } catch (Exception e) {
+                writeFailures.increment();
+                if (!running) {
+                    log.error("Dropping {} auth events at shutdown: {}", batch.size(), e.getMessage());
+                    size.addAndGet(-batch.size());
+                    batch.clear();
+                    continue;
+                }
+                // Keep the batch; the buffer filling up pushes back on record()
+                backoffMillis = Math.min(Math.max(backoffMillis * 2, 100), 10_000);
+                log.warn("Auth event write of {} failed, retrying in {}ms: {}", batch.size(), backoffMillis, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+            }
+        }
+    }
+
+    /**
+     * Write a batch, removing every event that was persisted or rejected from it. On a data
+     * error the halves are written separately, down to single rejected events; any other
+     * error propagates with the unwritten events still in the batch.
+     */
+    private void writeSplitting(List<AuthEvent> chunk) throws Exception {
+        try {
+            write(chunk);
+        } catch (Exception e) {
+            if (!isDataError(e)) {
+                throw e;
+            }
+            if (chunk.size() == 1) {
+                AuthEvent event = chunk.get(0);
+                log.error("Rejected auth event {} for {}: {}", event.eventType(), event.email(), e.getMessage());
+                rejected.increment();
+                size.decrementAndGet();
+                chunk.clear();
+                return;
+            }
+            writeSplitting(chunk.subList(0, chunk.size() / 2));
+            writeSplitting(chunk);
+            return;
+        }
+        size.addAndGet(-chunk.size());
+        persisted.increment(chunk.size());
+        chunk.clear();
+    }
+
+    static boolean isDataError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("22") || sql.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(List<AuthEvent> batch) throws Exception {
+        batch = attributeToUsers(batch);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(toCsv(batch)));
+                return;
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch.stream().map(e -> new Object[]{
+                Timestamp.valueOf(e.occurredAt()), e.eventType().name(), e.userId(), e.orgId(),
+                e.email(), e.clientIp(), e.detail()}).toList());
+    }
+
+    /**
+     * Fill in user_id / org_id of events recorded with only an email (replica when configured).
+     */
+    private List<AuthEvent> attributeToUsers(List<AuthEvent> batch) {
+        String[] emails = batch.stream()
+                .filter(e -> e.userId() == null && e.email() != null)
+                .map(AuthEvent::email)
+                .distinct()
+                .toArray(String[]::new);
+        if (emails.length == 0) {
+            return batch;
+        }
+
+        Map<String, UUID[]> users = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(USERS_BY_EMAIL_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", emails)),
+                (RowCallbackHandler) rs -> users.put(rs.getString("email"), new UUID[]{
+                        rs.getObject("id", UUID.class), rs.getObject("org_id", UUID.class)})));
+
+        List<AuthEvent> attributed = new ArrayList<>(batch.size());
+        for (AuthEvent event : batch) {
+            UUID[] user = event.userId() == null && event.email() != null ? users.get(event.email()) : null;
+            attributed.add(user != null ? event.withUser(user[0], user[1]) : event);
+        }
+        return attributed;
+    }
+
+    /**
+     * CSV for COPY: unquoted empty field is NULL, every value is quoted.
+     */
+    static String toCsv(List<AuthEvent> batch) {
+        StringBuilder csv = new StringBuilder(batch.size() * 160);
+        for (AuthEvent e : batch) {
+            csv.append(e.occurredAt()).append(',').append(e.eventType().name()).append(',');
+            appendField(csv, e.userId()).append(',');
+            appendField(csv, e.orgId()).append(',');
+            appendField(csv, e.email()).append(',');
+            appendField(csv, e.clientIp()).append(',');
+            appendField(csv, e.detail()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static StringBuilder appendField(StringBuilder csv, Object value) {
+        if (value == null) {
+            return csv;
+        }
+        String text = value.toString();
+        csv.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+}
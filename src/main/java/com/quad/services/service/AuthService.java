@@ -1,49 +1,115 @@
 package com.quad.services.service;
 
+import com.quad.services.config.Bulkhead;
+import com.quad.services.config.Workload;
 import com.quad.services.dto.AuthResponse;
 import com.quad.services.dto.LoginRequest;
+import com.quad.services.dto.OrgContext;
 import com.quad.services.dto.SignupRequest;
+import com.quad.services.dto.VerifyOtpRequest;
 import com.quad.services.entity.Organization;
 import com.quad.services.entity.User;
+import com.quad.services.exception.OtpVerificationException;
 import com.quad.services.repository.OrganizationRepository;
 import com.quad.services.repository.UserRepository;
-import com.quad.services.security.JwtUtil;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
+@Bulkhead(Workload.AUTH_WRITE)
 @Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
     private final OrganizationRepository organizationRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final EmailExistenceFilter emailExistenceFilter;
+    private final OrgContextService orgContextService;
+    private final TokenService tokenService;
+    private final OtpService otpService;
+    private final TransactionTemplate transactionTemplate;
+
+    public AuthService(UserRepository userRepository,
+                       OrganizationRepository organizationRepository,
+                       PasswordEncoder passwordEncoder,
+                       EmailExistenceFilter emailExistenceFilter,
+                       OrgContextService orgContextService,
+                       TokenService tokenService,
+                       OtpService otpService,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.organizationRepository = organizationRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.emailExistenceFilter = emailExistenceFilter;
+        this.orgContextService = orgContextService;
+        this.tokenService = tokenService;
+        this.otpService = otpService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
-    @Transactional
+    /**
+     * Most signups are for new emails: when the Bloom filter has never seen the email, the
+     * account-linking lookup is skipped. An email registered on another instance since the
+     * filter's last sync then fails the insert on the unique lower(email) index; the filter
+     * learns it and the signup runs once more, this time through the lookup.
+     *
+     * The password is hashed before the transaction: BCrypt takes ~100 ms of CPU and would
+     * otherwise hold one of the few auth-write connections for all of it. Signups that turn
+     * out to link an existing account discard the hash.
+     */
     public AuthResponse signup(SignupRequest request) {
+        String email = request.getEmail().toLowerCase();
+        boolean isPasswordless = isPasswordless(request);
+        String password = isPasswordless ? generateRandomPassword() : request.getPassword();
+        String passwordHash = password != null && !password.isBlank() ? passwordEncoder.encode(password) : null;
+
+        boolean knownNew = emailExistenceFilter.definitelyAbsent(email);
+        try {
+            return transactionTemplate.execute(status -> signupLocked(request, email, knownNew, passwordHash));
+        } catch (DataIntegrityViolationException e) {
+            if (!knownNew) {
+                throw e;
+            }
+            log.info("Signup for {} raced a registration on another instance, retrying with lookup", email);
+            emailExistenceFilter.add(email);
+            return transactionTemplate.execute(status -> signupLocked(request, email, false, passwordHash));
+        }
+    }
+
+    private AuthResponse signupLocked(SignupRequest request, String email, boolean knownNew, String passwordHash) {
+        // Concurrent signups of this email (other instances; SignupCoordinator handles this one)
+        // wait here and then take the account-linking path instead of creating a second org
+        userRepository.lockEmailForSignup(email);
+
         // ACCOUNT LINKING: Check if user already exists (enables same email across OAuth and email OTP)
-        var existingUserOpt = userRepository.findByEmail(request.getEmail().toLowerCase());
+        Optional<User> existingUserOpt = Optional.empty();
+        if (!knownNew) {
+            existingUserOpt = userRepository.findByEmail(email);
+            emailExistenceFilter.recordConfirmation(existingUserOpt.isPresent());
+        }
 
         if (existingUserOpt.isPresent()) {
             User existingUser = existingUserOpt.get();
             log.info("Account linking: Email {} already exists (user ID: {}). Treating as login/verification flow.",
                     existingUser.getEmail(), existingUser.getId());
 
-            // Determine if this is passwordless signup
-            boolean isPasswordless = "startup".equals(request.getOrgType()) ||
-                                      "business".equals(request.getOrgType());
+            boolean isPasswordless = isPasswordless(request);
 
-            // For OAuth users trying email OTP, or email OTP users re-requesting verification
-            if (isPasswordless || Boolean.TRUE.equals(request.getIsOAuth())) {
-                // TODO: Generate and send OTP for verification
+            // OAuth users trying email OTP, email OTP users re-requesting verification, and
+            // "already verified" signups: isOAuth / isEmailVerified are set by the client, not
+            // credentials, so an existing account only ever gets tokens after proving the mailbox
+            if (isPasswordless || Boolean.TRUE.equals(request.getIsOAuth())
+                    || Boolean.TRUE.equals(request.getIsEmailVerified())) {
+                otpService.issue(existingUser.getEmail());
                 return AuthResponse.builder()
                         .success(true)
                         .userId(existingUser.getId())
@@ -53,33 +119,6 @@ public class AuthService {
                         .build();
             }
 
-            // For OAuth signup with existing account, return token immediately
-            if (Boolean.TRUE.equals(request.getIsOAuth()) || Boolean.TRUE.equals(request.getIsEmailVerified())) {
-                String token = jwtUtil.generateToken(
-                        existingUser.getId(),
-                        existingUser.getEmail(),
-                        existingUser.getRole(),
-                        existingUser.getOrgId()
-                );
-
-                String orgName = existingUser.getOrgId() != null ?
-                        organizationRepository.findById(existingUser.getOrgId())
-                                .map(Organization::getName)
-                                .orElse(null) : null;
-
-                return AuthResponse.builder()
-                        .success(true)
-                        .token(token)
-                        .userId(existingUser.getId())
-                        .email(existingUser.getEmail())
-                        .fullName(existingUser.getFullName())
-                        .role(existingUser.getRole())
-                        .orgId(existingUser.getOrgId())
-                        .orgName(orgName)
-                        .requiresVerification(false)
-                        .build();
-            }
-
             // For other cases, reject duplicate email
             throw new RuntimeException("Email already registered");
         }
@@ -96,11 +135,7 @@ public class AuthService {
 
         log.info("Created organization: {} with ID: {}", organization.getName(), organization.getId());
 
-        // Determine if passwordless
-        boolean isPasswordless = "startup".equals(request.getOrgType()) ||
-                                  "business".equals(request.getOrgType());
-
-        String finalPassword = isPasswordless ? generateRandomPassword() : request.getPassword();
+        boolean isPasswordless = isPasswordless(request);
 
         if (!isPasswordless && (request.getPassword() == null || request.getPassword().isBlank())) {
             throw new RuntimeException("Password is required for this signup type");
@@ -109,7 +144,7 @@ public class AuthService {
         // Create user
         User user = new User();
         user.setEmail(request.getEmail().toLowerCase());
-        user.setPasswordHash(passwordEncoder.encode(finalPassword));
+        user.setPasswordHash(passwordHash);
         user.setFullName(request.getFullName());
         user.setRole("OWNER");
         user.setOrgId(organization.getId());
@@ -125,17 +160,20 @@ public class AuthService {
             user.setEmailVerified(true);  // Password signup is auto-verified
         }
 
-        user = userRepository.save(user);
+        // Flushed here so a unique lower(email) violation surfaces inside signup()
+        user = userRepository.saveAndFlush(user);
+        emailExistenceFilter.add(user.getEmail());
 
         log.info("Created user: {} with ID: {} for org: {}", user.getEmail(), user.getId(), organization.getId());
 
         // For OAuth or email-verified signups, return token immediately
         if (Boolean.TRUE.equals(request.getIsEmailVerified()) || !isPasswordless) {
-            String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole(), organization.getId());
+            TokenService.IssuedTokens tokens = tokenService.issue(user);
 
             return AuthResponse.builder()
                     .success(true)
-                    .token(token)
+                    .token(tokens.accessToken())
+                    .refreshToken(tokens.refreshToken())
                     .userId(user.getId())
                     .email(user.getEmail())
                     .fullName(user.getFullName())
@@ -147,7 +185,8 @@ public class AuthService {
         }
 
         // For passwordless (non-OAuth), requires OTP verification
-        // TODO: Generate and send OTP
+        // The code is queued in the outbox with this transaction and emailed asynchronously
+        otpService.issue(user.getEmail());
         return AuthResponse.builder()
                 .success(true)
                 .userId(user.getId())
@@ -157,14 +196,31 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * The user is loaded in one short transaction and the BCrypt check runs after its
+     * connection is back in the auth-write pool; a second transaction re-reads the user,
+     * records the login and issues tokens.
+     */
     public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail().toLowerCase())
-                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
+        String email = request.getEmail().toLowerCase();
+        // Read/write transactions: pin login to the primary (read-your-writes after signup)
+        String passwordHash = transactionTemplate.execute(status -> userRepository.findByEmail(email)
+                .map(User::getPasswordHash)
+                .orElseThrow(() -> new RuntimeException("Invalid email or password")));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordEncoder.matches(request.getPassword(), passwordHash)) {
             throw new RuntimeException("Invalid email or password");
         }
 
+        return transactionTemplate.execute(status -> completeLogin(email, passwordHash));
+    }
+
+    private AuthResponse completeLogin(String email, String checkedPasswordHash) {
+        // Password changed (or account replaced) between the check and now: start over
+        User user = userRepository.findByEmail(email)
+                .filter(current -> checkedPasswordHash.equals(current.getPasswordHash()))
+                .orElseThrow(() -> new RuntimeException("Invalid email or password"));
+
         if (!Boolean.TRUE.equals(user.getIsActive())) {
             throw new RuntimeException("Account is inactive");
         }
@@ -173,18 +229,17 @@ public class AuthService {
         user.setLastLoginAt(LocalDateTime.now());
         userRepository.save(user);
 
-        // Generate token
-        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole(), user.getOrgId());
+        // Generate access + refresh token (new token family per login)
+        TokenService.IssuedTokens tokens = tokenService.issue(user);
 
-        // Get organization name
-        String orgName = user.getOrgId() != null ?
-                organizationRepository.findById(user.getOrgId())
-                        .map(Organization::getName)
-                        .orElse(null) : null;
+        // Get organization name (cached org context)
+        OrgContext orgContext = user.getOrgId() != null ? orgContextService.get(user.getOrgId()) : null;
+        String orgName = orgContext != null ? orgContext.getName() : null;
 
         return AuthResponse.builder()
                 .success(true)
-                .token(token)
+                .token(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
                 .userId(user.getId())
                 .email(user.getEmail())
                 .fullName(user.getFullName())
@@ -195,6 +250,51 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * Complete passwordless signup / re-verification: consume the emailed code, mark the
+     * email verified and start a session.
+     * @throws OtpVerificationException if the code is wrong, expired or has had too many attempts
+     */
+    @Transactional(noRollbackFor = OtpVerificationException.class)
+    public AuthResponse verifyOtp(VerifyOtpRequest request) {
+        String email = request.getEmail().toLowerCase();
+        otpService.verify(email, request.getCode());
+
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new OtpVerificationException(OtpVerificationException.Reason.INVALID,
+                        "Invalid verification code"));
+
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            throw new RuntimeException("Account is inactive");
+        }
+
+        user.setEmailVerified(true);
+        user.setLastLoginAt(LocalDateTime.now());
+        userRepository.save(user);
+
+        TokenService.IssuedTokens tokens = tokenService.issue(user);
+
+        OrgContext orgContext = user.getOrgId() != null ? orgContextService.get(user.getOrgId()) : null;
+        String orgName = orgContext != null ? orgContext.getName() : null;
+
+        return AuthResponse.builder()
+                .success(true)
+                .token(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
+                .userId(user.getId())
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .role(user.getRole())
+                .orgId(user.getOrgId())
+                .orgName(orgName)
+                .requiresVerification(false)
+                .build();
+    }
+
+    private static boolean isPasswordless(SignupRequest request) {
+        return "startup".equals(request.getOrgType()) || "business".equals(request.getOrgType());
+    }
+
     private String generateSlug(String name) {
         String slug = name.toLowerCase()
                 .replaceAll("[^a-z0-9\\s-]", "")
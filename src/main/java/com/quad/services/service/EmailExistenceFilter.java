@@ -0,0 +1,276 @@
+package com.quad.services.service;
+
+import com.quad.services.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of registered (lower-cased) emails.
+ *
+ * Most emails probed by signup, existence checks and bulk lookups are not registered.
+ * The filter answers those "definitely not registered" without a DB query; a "maybe" is
+ * confirmed against UserRepository.
+ *
+ * Each instance has its own filter, and emails registered on other instances only arrive
+ * with the next sync, so a "definitely absent" can be wrong for up to one sync interval.
+ * Existence checks and bulk lookups accept that; signup relies on the unique lower(email)
+ * index and retries through the DB lookup when the insert collides.
+ *
+ * - Built in the background once the app is ready (until then every probe is a "maybe")
+ * - Updated in-process on signup, and every sync interval with emails created by other
+ *   instances (with an overlap window for clock skew)
+ * - Rebuilt at double capacity once more emails than expected-emails have been added
+ *   (an add that sets no new bit, e.g. an email re-read by the sync overlap, does not
+ *   count), on its own thread so the shared scheduler thread is not held for the table scan
+ * - Metrics: definite negatives (DB queries saved), maybes, observed false positives
+ *
+ * Sizing: m = -n ln(p) / ln(2)^2 bits, k = m/n ln(2) hashes. 5M emails at 1% false
+ * positives is ~48M bits (~6 MB) with 7 hashes.
+ */
+@Service
+@Slf4j
+public class EmailExistenceFilter {
+
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final double falsePositiveRate;
+
+    private volatile Bloom current;
+    private volatile Bloom building;
+    private volatile LocalDateTime lastSync;
+    private volatile long lastRebuildMillis;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final long initialCapacity;
+
+    private final Counter definiteNegatives;
+    private final Counter maybes;
+    private final Counter falsePositives;
+
+    public EmailExistenceFilter(UserRepository userRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${quad.users.email-filter.expected-emails:5000000}") long expectedEmails,
+                                @Value("${quad.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.initialCapacity = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.definiteNegatives = Counter.builder("quad.users.email_filter.negatives")
+                .description("Email probes answered 'not registered' without a DB query")
+                .register(meterRegistry);
+        this.maybes = Counter.builder("quad.users.email_filter.maybes")
+                .description("Email probes that needed a DB confirmation")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("quad.users.email_filter.false_positives")
+                .description("DB confirmations that found no user")
+                .register(meterRegistry);
+        Gauge.builder("quad.users.email_filter.false_positive_rate", this, EmailExistenceFilter::observedFalsePositiveRate)
+                .description("Observed share of 'maybe' answers that were not registered")
+                .register(meterRegistry);
+        Gauge.builder("quad.users.email_filter.rebuild_ms", this, f -> f.lastRebuildMillis)
+                .description("Duration of the last full rebuild")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true only if the email is certainly not registered
+     */
+    public boolean definitelyAbsent(String email) {
+        Bloom bloom = current;
+        if (bloom == null || email == null || bloom.mightContain(email.toLowerCase())) {
+            maybes.increment();
+            return false;
+        }
+        definiteNegatives.increment();
+        return true;
+    }
+
+    /**
+     * Feed back the DB answer for a "maybe" so the false positive rate can be tracked.
+     */
+    public void recordConfirmation(boolean found) {
+        if (!found) {
+            falsePositives.increment();
+        }
+    }
+
+    public void add(String email) {
+        String normalized = email.toLowerCase();
+        Bloom bloom = current;
+        if (bloom != null) {
+            bloom.add(normalized);
+        }
+        Bloom next = building;
+        if (next != null) {
+            next.add(normalized);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        startRebuild(initialCapacity);
+    }
+
+    @Scheduled(fixedDelayString = "${quad.users.email-filter.sync-ms:30000}")
+    public void syncRecentSignups() {
+        Bloom bloom = current;
+        if (bloom == null || building != null) {
+            return;
+        }
+
+        LocalDateTime since = lastSync.minusSeconds(SYNC_OVERLAP_SECONDS);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    userRepository.findEmailsCreatedSince(since).forEach(bloom::add));
+            lastSync = now;
+        } catch (RuntimeException e) {
+            log.warn("Email filter sync failed, will retry: {}", e.getMessage());
+        }
+
+        if (bloom.insertions() > bloom.capacity) {
+            startRebuild(bloom.capacity * 2);
+        }
+    }
+
+    private void startRebuild(long capacity) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild(capacity);
+            } finally {
+                rebuilding.set(false);
+            }
+        }, "email-filter-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private synchronized void rebuild(long capacity) {
+        long start = System.currentTimeMillis();
+        LocalDateTime syncPoint = LocalDateTime.now();
+        Bloom next = new Bloom(capacity, falsePositiveRate);
+        building = next;
+        try {
+            long count = readOnlyTransaction.execute(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    return emails.peek(next::add).count();
+                }
+            });
+            lastSync = syncPoint;
+            current = next;
+            lastRebuildMillis = System.currentTimeMillis() - start;
+            log.info("Email filter built: {} emails, {} bits, {} hashes in {}ms",
+                    count, next.numBits, next.numHashes, lastRebuildMillis);
+        } catch (RuntimeException e) {
+            log.warn("Email filter build failed, lookups go to the DB until the next attempt: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double maybeCount = maybes.count();
+        return maybeCount == 0 ? 0 : falsePositives.count() / maybeCount;
+    }
+
+    /**
+     * Lock-free Bloom filter over an AtomicLongArray (double hashing: h1 + i * h2).
+     */
+    private static final class Bloom {
+
+        private final AtomicLongArray bits;
+        private final long numBits;
+        private final int numHashes;
+        private final long capacity;
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Bloom(long capacity, double falsePositiveRate) {
+            long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.numBits = Math.max(64, (m + 63) / 64 * 64);
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+            this.capacity = capacity;
+            this.bits = new AtomicLongArray((int) (numBits / 64));
+        }
+
+        /**
+         * Counted as an insertion only if it set at least one bit (already present otherwise).
+         */
+        void add(String email) {
+            long h1 = hash(email);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+            boolean changed = false;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value = bits.get(word);
+                while ((value & mask) == 0) {
+                    if (bits.compareAndSet(word, value, value | mask)) {
+                        changed = true;
+                        break;
+                    }
+                    value = bits.get(word);
+                }
+            }
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+        }
+
+        boolean mightContain(String email) {
+            long h1 = hash(email);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, numBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long insertions() {
+            return insertions.get();
+        }
+
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;  // FNV-1a 64
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {  // MurmurHash3 fmix64
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.OrgContext;
+import com.quad.services.entity.Organization;
+import com.quad.services.repository.OrganizationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Organization context shared by every consumer of org settings
+ * (agent rules, login, AI prompt building).
+ *
+ * One Organization read per org per orgContext TTL (10 min); callers get an
+ * immutable OrgContext instead of a managed entity.
+ * Call evict(orgId) whenever organization settings change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrgContextService {
+
+    private static final String DEFAULT_INDUSTRY = "general";
+
+    private final OrganizationRepository organizationRepository;
+
+    /**
+     * @param orgId Organization UUID
+     * @return Context for the org, or null if it does not exist (not cached)
+     */
+    @Cacheable(value = "orgContext", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public OrgContext get(UUID orgId) {
+        log.debug("Loading org context for {}", orgId);
+        return organizationRepository.findById(orgId)
+                .map(OrgContextService::toContext)
+                .orElse(null);
+    }
+
+    @CacheEvict(value = "orgContext", key = "#orgId")
+    public void evict(UUID orgId) {
+        // Cache entry removed by Spring
+    }
+
+    private static OrgContext toContext(Organization org) {
+        String industry = org.getIndustry();
+        if (industry == null || industry.isEmpty()) {
+            industry = DEFAULT_INDUSTRY;
+        }
+
+        return OrgContext.builder()
+                .orgId(org.getId())
+                .name(org.getName())
+                .industry(industry)
+                .aiTier(org.getAiTier())
+                .sandboxStrategy(org.getSandboxStrategy())
+                .timezone(org.getTimezone())
+                .teamSize(org.getTeamSize())
+                .build();
+    }
+}
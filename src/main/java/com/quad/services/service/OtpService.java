@@ -0,0 +1,315 @@
+package com.quad.services.service;
+
+import com.quad.services.config.Bulkhead;
+import com.quad.services.config.Workload;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quad.services.exception.OtpVerificationException;
+import com.quad.services.mail.EmailOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Email one-time passwords (6-digit codes) for passwordless signup and re-verification.
+ *
+ * Storage:
+ * - quad_email_otps is the source of truth (any instance can verify a code another one
+ *   issued); only a SHA-256 of email + code is stored, never the code itself
+ * - Codes are also kept in an expiring in-memory cache (TTL = code lifetime) so the
+ *   common verify on the issuing instance needs no read; the DB row is re-read on a miss
+ *   or a mismatch (the cached copy may be stale if another instance re-issued)
+ * - Issue and verify of the same email are serialized by a striped lock (stripe chosen by
+ *   email hash), so concurrent guesses cannot both slip under the attempt limit
+ *
+ * Throttling:
+ * - max-attempts wrong guesses burn the code (DB counter, incremented atomically)
+ * - max-failures-per-window wrong guesses per email lock verification until the rolling
+ *   failure window has passed; unlike attempts, this count survives re-issued codes, so
+ *   requesting a new code does not buy more guesses
+ * - A new code is sent at most once per resend-cooldown per email; repeated signup calls
+ *   inside the window keep the current code instead of flooding the inbox
+ *
+ * Delivery: issue() writes the email to the outbox in the caller's transaction; sending
+ * happens later in EmailOutboxDispatcher, so signup latency never includes SMTP time.
+ */
+@Service
+@Bulkhead(Workload.AUTH_WRITE)
+@Slf4j
+public class OtpService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int STRIPES = 64;
+
+    // A re-issued code keeps the email's failure window unless it started before ? (now - window)
+    private static final String UPSERT_SQL =
+            "INSERT INTO quad_email_otps (email, code_hash, expires_at, attempts, created_at, window_started_at, window_failures) " +
+            "VALUES (?, ?, ?, 0, ?, ?, 0) " +
+            "ON CONFLICT (email) DO UPDATE SET code_hash = EXCLUDED.code_hash, expires_at = EXCLUDED.expires_at, " +
+            "attempts = 0, created_at = EXCLUDED.created_at, " +
+            "window_failures = CASE WHEN quad_email_otps.window_started_at > ? THEN quad_email_otps.window_failures ELSE 0 END, " +
+            "window_started_at = CASE WHEN quad_email_otps.window_started_at > ? " +
+            "THEN quad_email_otps.window_started_at ELSE EXCLUDED.window_started_at END " +
+            "RETURNING code_hash, expires_at, attempts, created_at, window_started_at, window_failures";
+    private static final String SELECT_SQL =
+            "SELECT code_hash, expires_at, attempts, created_at, window_started_at, window_failures " +
+            "FROM quad_email_otps WHERE email = ?";
+    private static final String FAILED_ATTEMPT_SQL =
+            "UPDATE quad_email_otps SET attempts = attempts + 1, " +
+            "window_failures = CASE WHEN window_started_at > ? THEN window_failures + 1 ELSE 1 END, " +
+            "window_started_at = CASE WHEN window_started_at > ? THEN window_started_at ELSE ? END " +
+            "WHERE email = ? AND code_hash = ? " +
+            "RETURNING code_hash, expires_at, attempts, created_at, window_started_at, window_failures";
+    // The window check is repeated here: another instance may have locked the email since our read
+    private static final String CONSUME_SQL =
+            "DELETE FROM quad_email_otps WHERE email = ? AND code_hash = ? AND expires_at > ? AND attempts < ? " +
+            "AND NOT (window_failures >= ? AND window_started_at > ?)";
+    private static final String PURGE_SQL =
+            "DELETE FROM quad_email_otps WHERE expires_at < ? AND window_started_at < ?";
+
+    /**
+     * Current code of one email and its failure window, as last read from or written to the DB.
+     */
+    private static final class OtpEntry {
+        final String codeHash;
+        final LocalDateTime expiresAt;
+        final LocalDateTime issuedAt;
+        final int attempts;
+        final LocalDateTime windowStartedAt;
+        final int windowFailures;
+
+        OtpEntry(String codeHash, LocalDateTime expiresAt, LocalDateTime issuedAt, int attempts,
+                 LocalDateTime windowStartedAt, int windowFailures) {
+            this.codeHash = codeHash;
+            this.expiresAt = expiresAt;
+            this.issuedAt = issuedAt;
+            this.attempts = attempts;
+            this.windowStartedAt = windowStartedAt;
+            this.windowFailures = windowFailures;
+        }
+
+        /**
+         * Burnt: the code itself has had max-attempts wrong guesses.
+         */
+        OtpEntry burnt(int maxAttempts) {
+            return new OtpEntry(codeHash, expiresAt, issuedAt, maxAttempts, windowStartedAt, windowFailures);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailOutbox emailOutbox;
+    private final Duration ttl;
+    private final Duration resendCooldown;
+    private final int maxAttempts;
+    private final int maxFailuresPerWindow;
+    private final Duration failureWindow;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Cache<String, OtpEntry> codes;
+    private final Counter issued;
+    private final Counter verified;
+    private final Counter rejected;
+
+    public OtpService(JdbcTemplate jdbcTemplate,
+                      EmailOutbox emailOutbox,
+                      MeterRegistry meterRegistry,
+                      @Value("${quad.auth.otp.ttl-seconds:600}") long ttlSeconds,
+                      @Value("${quad.auth.otp.resend-cooldown-seconds:30}") long resendCooldownSeconds,
+                      @Value("${quad.auth.otp.max-attempts:5}") int maxAttempts,
+                      @Value("${quad.auth.otp.max-failures-per-window:10}") int maxFailuresPerWindow,
+                      @Value("${quad.auth.otp.failure-window-seconds:3600}") long failureWindowSeconds,
+                      @Value("${quad.auth.otp.max-cached:100000}") long maxCached) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailOutbox = emailOutbox;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.resendCooldown = Duration.ofSeconds(resendCooldownSeconds);
+        this.maxAttempts = maxAttempts;
+        this.maxFailuresPerWindow = maxFailuresPerWindow;
+        this.failureWindow = Duration.ofSeconds(failureWindowSeconds);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxCached)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+        this.issued = Counter.builder("quad.auth.otp.issued").register(meterRegistry);
+        this.verified = Counter.builder("quad.auth.otp.verified").register(meterRegistry);
+        this.rejected = Counter.builder("quad.auth.otp.rejected")
+                .description("Wrong, expired or throttled verification attempts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issue a code for the email and queue it for delivery (in the caller's transaction).
+     * Inside the resend cooldown, or while the email is locked out, nothing is queued.
+     *
+     * @return true if a new code was queued
+     */
+    @Transactional
+    public boolean issue(String email) {
+        String normalized = email.toLowerCase();
+        ReentrantLock lock = stripeFor(normalized);
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            OtpEntry current = load(normalized);
+            if (current != null && current.expiresAt.isAfter(now) && current.attempts < maxAttempts
+                    && current.issuedAt.plus(resendCooldown).isAfter(now)) {
+                return false;
+            }
+            if (current != null && lockedOut(current, now)) {
+                return false;  // It could not be verified anyway
+            }
+
+            String code = String.format("%06d", RANDOM.nextInt(1_000_000));
+            Timestamp windowOpenSince = Timestamp.valueOf(now.minus(failureWindow));
+            OtpEntry entry = jdbcTemplate.queryForObject(UPSERT_SQL, OtpService::mapEntry, normalized,
+                    hash(normalized, code), Timestamp.valueOf(now.plus(ttl)), Timestamp.valueOf(now),
+                    Timestamp.valueOf(now), windowOpenSince, windowOpenSince);
+            emailOutbox.enqueue(normalized, "Your QUAD verification code",
+                    "Your QUAD verification code is " + code + ".\n\n" +
+                    "It expires in " + ttl.toMinutes() + " minutes. If you did not request it, ignore this email.");
+            // If the transaction rolls back, the cached entry has no DB row and cannot be consumed
+            codes.put(normalized, entry);
+            issued.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check and consume the email's code.
+     * @throws OtpVerificationException if the code is wrong, expired or has had too many attempts
+     */
+    @Transactional(noRollbackFor = OtpVerificationException.class)
+    public void verify(String email, String code) {
+        String normalized = email.toLowerCase();
+        ReentrantLock lock = stripeFor(normalized);
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            String candidate = hash(normalized, code);
+
+            OtpEntry entry = codes.getIfPresent(normalized);
+            if (entry == null || !matches(entry, candidate)) {
+                // Miss, or a possibly stale copy: the DB row decides
+                entry = loadFromDb(normalized);
+            }
+            if (entry == null || !entry.expiresAt.isAfter(now)) {
+                throw reject(normalized, OtpVerificationException.Reason.EXPIRED, "Verification code expired");
+            }
+            if (lockedOut(entry, now)) {
+                throw reject(normalized, OtpVerificationException.Reason.TOO_MANY_ATTEMPTS,
+                        "Too many failed attempts, try again later");
+            }
+            if (entry.attempts >= maxAttempts) {
+                throw reject(normalized, OtpVerificationException.Reason.TOO_MANY_ATTEMPTS,
+                        "Too many attempts, request a new code");
+            }
+
+            if (!matches(entry, candidate)) {
+                Timestamp windowOpenSince = Timestamp.valueOf(now.minus(failureWindow));
+                List<OtpEntry> updated = jdbcTemplate.query(FAILED_ATTEMPT_SQL, OtpService::mapEntry,
+                        windowOpenSince, windowOpenSince, Timestamp.valueOf(now), normalized, entry.codeHash);
+                codes.put(normalized, updated.isEmpty() ? entry.burnt(maxAttempts) : updated.get(0));
+                throw reject(normalized, OtpVerificationException.Reason.INVALID, "Invalid verification code");
+            }
+
+            // Single use across instances: only one DELETE can remove the row
+            int consumed = jdbcTemplate.update(CONSUME_SQL, normalized, entry.codeHash, Timestamp.valueOf(now),
+                    maxAttempts, maxFailuresPerWindow, Timestamp.valueOf(now.minus(failureWindow)));
+            codes.invalidate(normalized);
+            if (consumed == 0) {
+                throw reject(normalized, OtpVerificationException.Reason.EXPIRED, "Verification code expired");
+            }
+            verified.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quad.auth.otp.purge-ms:3600000}")
+    @Bulkhead(Workload.DEFAULT)  // housekeeping stays out of the auth-write pool
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(now), Timestamp.valueOf(now.minus(failureWindow)));
+        if (purged > 0) {
+            log.info("Purged {} expired verification codes", purged);
+        }
+    }
+
+    private OtpEntry load(String email) {
+        OtpEntry entry = codes.getIfPresent(email);
+        return entry != null ? entry : loadFromDb(email);
+    }
+
+    private OtpEntry loadFromDb(String email) {
+        List<OtpEntry> rows = jdbcTemplate.query(SELECT_SQL, OtpService::mapEntry, email);
+        if (rows.isEmpty()) {
+            codes.invalidate(email);
+            return null;
+        }
+        OtpEntry entry = rows.get(0);
+        codes.put(email, entry);
+        return entry;
+    }
+
+    private boolean lockedOut(OtpEntry entry, LocalDateTime now) {
+        return entry.windowFailures >= maxFailuresPerWindow && entry.windowStartedAt.isAfter(now.minus(failureWindow));
+    }
+
+    private static OtpEntry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new OtpEntry(
+                rs.getString("code_hash"),
+                rs.getTimestamp("expires_at").toLocalDateTime(),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getInt("attempts"),
+                rs.getTimestamp("window_started_at").toLocalDateTime(),
+                rs.getInt("window_failures"));
+    }
+
+    private OtpVerificationException reject(String email, OtpVerificationException.Reason reason, String message) {
+        rejected.increment();
+        log.info("Verification code rejected for {}: {}", email, reason);
+        return new OtpVerificationException(reason, message);
+    }
+
+    private ReentrantLock stripeFor(String email) {
+        int h = email.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static boolean matches(OtpEntry entry, String candidateHash) {
+        return MessageDigest.isEqual(entry.codeHash.getBytes(StandardCharsets.US_ASCII),
+                candidateHash.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String hash(String email, String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest((email + ":" + code).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.ProfileReport;
+import com.quad.services.exception.ProfilingUnavailableException;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * On-demand Java Flight Recorder sessions for diagnosing latency on a running instance.
+ *
+ * Session: profile() records for the requested number of seconds on the calling thread,
+ * stops the recording, writes it to dir and summarizes it (ProfileReport). The last
+ * session (report and .jfr file) is kept until the next one replaces it or the instance
+ * shuts down.
+ *
+ * Safeguards:
+ * - One session per instance at a time (BUSY); duration capped by max-duration-seconds
+ * - cooldown-seconds between sessions (COOLDOWN)
+ * - Refuses to start while machine CPU load is at or above max-cpu-load (OVERLOADED)
+ * - JFR "default" settings (~1% overhead); the "profile" settings (more samples, lower
+ *   lock thresholds, ~2%) only when allow-profile-settings is set
+ * - Recording size capped by max-size-mb; on Cloud Run /tmp is in memory, so this
+ *   counts against the instance memory limit
+ */
+@Service
+@Slf4j
+public class ProfilingService {
+
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final Path dir;
+    private final long maxSizeBytes;
+    private final long cooldownMillis;
+    private final double maxCpuLoad;
+    private final boolean allowProfileSettings;
+    private final int topN;
+    private final String applicationPackage;
+
+    private final AtomicBoolean active = new AtomicBoolean();
+    private volatile long activeUntilMillis;
+    private volatile long nextAllowedMillis;
+    private volatile Session latest;
+
+    private record Session(ProfileReport report, Path jfrFile) {
+    }
+
+    public ProfilingService(@Value("${quad.profiling.dir:${java.io.tmpdir}/quad-jfr}") String dir,
+                            @Value("${quad.profiling.max-size-mb:32}") long maxSizeMb,
+                            @Value("${quad.profiling.cooldown-seconds:300}") long cooldownSeconds,
+                            @Value("${quad.profiling.max-cpu-load:0.85}") double maxCpuLoad,
+                            @Value("${quad.profiling.allow-profile-settings:false}") boolean allowProfileSettings,
+                            @Value("${quad.profiling.top-n:20}") int topN,
+                            @Value("${quad.profiling.application-package:com.quad.services.}") String applicationPackage) {
+        this.dir = Path.of(dir);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.cooldownMillis = cooldownSeconds * 1000;
+        this.maxCpuLoad = maxCpuLoad;
+        this.allowProfileSettings = allowProfileSettings;
+        this.topN = topN;
+        this.applicationPackage = applicationPackage;
+    }
+
+    /**
+     * Record for the given duration, then summarize. Blocks the caller for the whole session.
+     *
+     * @param detailed use the JFR "profile" settings instead of "default"
+     * @throws ProfilingUnavailableException if a session is running, in cooldown, or the CPU is saturated
+     * @throws IllegalArgumentException if detailed settings are requested but not allowed
+     */
+    public ProfileReport profile(int seconds, boolean detailed, String requestedBy)
+            throws IOException, InterruptedException {
+        if (detailed && !allowProfileSettings) {
+            throw new IllegalArgumentException("The profile settings are disabled (quad.profiling.allow-profile-settings)");
+        }
+        admit();
+        if (!active.compareAndSet(false, true)) {
+            throw new ProfilingUnavailableException(ProfilingUnavailableException.Reason.BUSY,
+                    "A profiling session is already running on this instance", secondsUntil(activeUntilMillis));
+        }
+
+        try {
+            String settings = detailed ? "profile" : "default";
+            String id = UUID.randomUUID().toString();
+            Files.createDirectories(dir);
+            Path jfrFile = dir.resolve("quad-" + id + ".jfr");
+            LocalDateTime startedAt = LocalDateTime.now();
+            activeUntilMillis = System.currentTimeMillis() + seconds * 1000L;
+            log.info("Profiling session {} started by {} ({}s, {} settings)", id, requestedBy, seconds, settings);
+
+            try (Recording recording = new Recording(Configuration.getConfiguration(settings))) {
+                recording.setName("quad-" + id);
+                recording.setToDisk(true);
+                recording.setMaxSize(maxSizeBytes);
+                recording.setDestination(jfrFile);
+                recording.start();
+                Thread.sleep(seconds * 1000L);
+                recording.stop();  // Writes the destination file
+            } catch (ParseException e) {
+                throw new IllegalStateException("JFR settings " + settings + " are not available", e);
+            }
+
+            ProfileReport report;
+            try {
+                report = summarize(id, settings, startedAt, seconds, jfrFile);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(jfrFile);
+                throw e;
+            }
+            replaceLatest(new Session(report, jfrFile));
+            log.info("Profiling session {} finished: {} CPU samples, {} bytes", id, report.cpuSamples(), report.jfrBytes());
+            return report;
+        } finally {
+            nextAllowedMillis = System.currentTimeMillis() + cooldownMillis;
+            active.set(false);
+        }
+    }
+
+    public Optional<ProfileReport> latestReport() {
+        Session session = latest;
+        return session != null ? Optional.of(session.report()) : Optional.empty();
+    }
+
+    /**
+     * The .jfr file of the last session, if it is still on disk.
+     */
+    public Optional<Path> latestRecording() {
+        Session session = latest;
+        return session != null && Files.exists(session.jfrFile()) ? Optional.of(session.jfrFile()) : Optional.empty();
+    }
+
+    @PreDestroy
+    void deleteRecordings() {
+        replaceLatest(null);
+    }
+
+    private void admit() {
+        long now = System.currentTimeMillis();
+        if (now < nextAllowedMillis) {
+            throw new ProfilingUnavailableException(ProfilingUnavailableException.Reason.COOLDOWN,
+                    "Profiling is cooling down after the last session", secondsUntil(nextAllowedMillis));
+        }
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sunOs) {
+            double load = sunOs.getCpuLoad();  // Container-aware; negative when not available
+            if (load >= maxCpuLoad) {
+                throw new ProfilingUnavailableException(ProfilingUnavailableException.Reason.OVERLOADED,
+                        String.format("CPU load %.0f%% is above the profiling limit", load * 100), 30);
+            }
+        }
+    }
+
+    private void replaceLatest(Session session) {
+        Session previous = latest;
+        latest = session;
+        if (previous != null) {
+            try {
+                Files.deleteIfExists(previous.jfrFile());
+            } catch (IOException e) {
+                log.warn("Could not delete recording {}: {}", previous.jfrFile(), e.getMessage());
+            }
+        }
+    }
+
+    private static long secondsUntil(long epochMillis) {
+        return Math.max(1, (epochMillis - System.currentTimeMillis() + 999) / 1000);
+    }
+
+    // ---- Summary ----
+
+    /** Aggregation key: kind is "" for CPU and allocation sites. */
+    private record Site(String kind, String objectClass, String method) {
+    }
+
+    private static final class Tally {
+        long events;
+        long total;
+        long max;
+
+        void add(long value) {
+            events++;
+            total += value;
+            max = Math.max(max, value);
+        }
+    }
+
+    ProfileReport summarize(String id, String settings, LocalDateTime startedAt, long seconds, Path jfrFile)
+            throws IOException {
+        Map<Site, Tally> cpu = new HashMap<>();
+        Map<Site, Tally> cpuApplication = new HashMap<>();
+        Map<Site, Tally> allocations = new HashMap<>();
+        Map<Site, Tally> contention = new HashMap<>();
+        Map<String, Tally> gc = new HashMap<>();
+        long cpuSamples = 0;
+        long allocatedBytes = 0;
+
+        try (RecordingFile file = new RecordingFile(jfrFile)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        RecordedStackTrace stack = event.getStackTrace();
+                        if (stack == null || stack.getFrames().isEmpty()) {
+                            continue;
+                        }
+                        cpuSamples++;
+                        cpu.computeIfAbsent(new Site("", null, methodOf(stack.getFrames().get(0))), k -> new Tally()).add(1);
+                        String application = firstFrame(stack, name -> name.startsWith(applicationPackage));
+                        if (application != null) {
+                            cpuApplication.computeIfAbsent(new Site("", null, application), k -> new Tally()).add(1);
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        long weight = event.getLong("weight");
+                        allocatedBytes += weight;
+                        allocations.computeIfAbsent(new Site("", className(event.getClass("objectClass")),
+                                callerOf(event.getStackTrace())), k -> new Tally()).add(weight);
+                    }
+                    case "jdk.JavaMonitorEnter" -> contention.computeIfAbsent(new Site("monitor",
+                                    className(event.getClass("monitorClass")), callerOf(event.getStackTrace())),
+                            k -> new Tally()).add(event.getDuration().toMillis());
+                    case "jdk.ThreadPark" -> contention.computeIfAbsent(new Site("park",
+                                    className(event.getClass("parkedClass")), callerOf(event.getStackTrace())),
+                            k -> new Tally()).add(event.getDuration().toMillis());
+                    case "jdk.GarbageCollection" -> {
+                        Duration pauses = event.getDuration("sumOfPauses");
+                        gc.computeIfAbsent(event.getString("name"), k -> new Tally()).add(pauses.toMillis());
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        long samples = cpuSamples;
+        long bytes = allocatedBytes;
+        return new ProfileReport(id, ManagementFactory.getRuntimeMXBean().getName(), settings, startedAt, seconds,
+                Files.size(jfrFile), cpuSamples,
+                top(cpu, entry -> new ProfileReport.HotMethod(entry.getKey().method(), entry.getValue().total,
+                        percent(entry.getValue().total, samples))),
+                top(cpuApplication, entry -> new ProfileReport.HotMethod(entry.getKey().method(), entry.getValue().total,
+                        percent(entry.getValue().total, samples))),
+                top(allocations, entry -> new ProfileReport.AllocationSite(entry.getKey().objectClass(),
+                        entry.getKey().method(), entry.getValue().total, percent(entry.getValue().total, bytes))),
+                top(contention, entry -> new ProfileReport.ContentionSite(entry.getKey().kind(),
+                        entry.getKey().objectClass(), entry.getKey().method(), entry.getValue().events,
+                        entry.getValue().total, entry.getValue().max)),
+                top(gc, entry -> new ProfileReport.GcPauses(entry.getKey(), entry.getValue().events,
+                        entry.getValue().total, entry.getValue().max)));
+    }
+
+    /**
+     * Largest totals first, limited to top-n.
+     */
+    private <K, R> List<R> top(Map<K, Tally> tallies, Function<Map.Entry<K, Tally>, R> mapper) {
+        return tallies.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<K, Tally> entry) -> entry.getValue().total).reversed())
+                .limit(topN)
+                .map(mapper)
+                .toList();
+    }
+
+    /**
+     * First frame outside the JDK: the code that allocated, or waited on, something
+     * (the top frame is usually Arrays.copyOf or Unsafe.park).
+     */
+    private static String callerOf(RecordedStackTrace stack) {
+        if (stack == null || stack.getFrames().isEmpty()) {
+            return null;
+        }
+        String caller = firstFrame(stack, name -> JDK_PACKAGES.stream().noneMatch(name::startsWith));
+        return caller != null ? caller : methodOf(stack.getFrames().get(0));
+    }
+
+    private static String firstFrame(RecordedStackTrace stack, Predicate<String> classFilter) {
+        for (RecordedFrame frame : stack.getFrames()) {
+            if (frame.isJavaFrame() && classFilter.test(frame.getMethod().getType().getName())) {
+                return methodOf(frame);
+            }
+        }
+        return null;
+    }
+
+    private static String methodOf(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass != null ? recordedClass.getName() : null;
+    }
+
+    private static double percent(long part, long whole) {
+        return whole > 0 ? Math.round(part * 1000.0 / whole) / 10.0 : 0;
+    }
+}
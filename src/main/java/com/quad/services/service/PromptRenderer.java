@@ -0,0 +1,163 @@
+package com.quad.services.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quad.services.config.CacheWeigher;
+import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.dto.OrgContext;
+import com.quad.services.dto.PromptRenderResponse;
+import com.quad.services.exception.OrganizationNotFoundException;
+import com.quad.services.exception.TokenBudgetTooSmallException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Server-side prompt rendering: merged agent rules + org context -> final prompt text.
+ *
+ * - Template (quad.prompts.template) is compiled once at startup into segments
+ * - Token budget: rules are kept in priority order (highest IndustryDefault.priority
+ *   first, DONT before DO on ties) until the next one would exceed the budget; all
+ *   remaining lower-priority rules are dropped. Sizes come from TokenEstimator. A budget
+ *   the template alone does not fit is rejected rather than silently exceeded.
+ * - Rendered output is cached per (org, activity, budget) and reused only while it was
+ *   built from the same cached AgentRulesResponse and OrgContext instances, so a rules
+ *   refresh or org context reload re-renders on the next request.
+ */
+@Service
+@Slf4j
+public class PromptRenderer {
+
+    private static final String NO_RULES = "- (none)\n";
+    private static final String UNSPECIFIED = "unspecified";
+
+    private final AgentRulesService agentRulesService;
+    private final OrgContextService orgContextService;
+    private final PromptTemplate template;
+    private final Cache<PromptKey, RenderedPrompt> rendered;
+
+    public PromptRenderer(AgentRulesService agentRulesService,
+                          OrgContextService orgContextService,
+                          @Value("${quad.prompts.template:classpath:prompts/agent-rules.prompt}") Resource templateResource,
+                          @Value("${quad.prompts.cache.max-bytes:8388608}") long maxBytes) throws IOException {
+        this.agentRulesService = agentRulesService;
+        this.orgContextService = orgContextService;
+        this.template = PromptTemplate.compile(templateResource.getContentAsString(StandardCharsets.UTF_8));
+        this.rendered = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(CacheWeigher::weigh)
+                .build();
+    }
+
+    /**
+     * @throws OrganizationNotFoundException if the organization does not exist
+     * @throws TokenBudgetTooSmallException if the template without rules exceeds tokenBudget
+     * @throws com.quad.services.exception.BackendUnavailableException if rules cannot be loaded
+     */
+    public PromptRenderResponse render(UUID orgId, String activityType, int tokenBudget) {
+        AgentRulesResponse rules = agentRulesService.getMergedRules(orgId, activityType);
+        OrgContext org = orgContextService.get(orgId);
+        if (org == null) {
+            throw new OrganizationNotFoundException(orgId);
+        }
+
+        PromptKey key = new PromptKey(orgId, activityType, tokenBudget);
+        RenderedPrompt cached = rendered.getIfPresent(key);
+        if (cached != null && cached.rules() == rules && cached.org() == org) {
+            return cached.response();
+        }
+
+        PromptRenderResponse response = render(rules, org, tokenBudget);
+        rendered.put(key, new RenderedPrompt(rules, org, response));
+        return response;
+    }
+
+    PromptRenderResponse render(AgentRulesResponse rules, OrgContext org, int tokenBudget) {
+        Map<String, CharSequence> values = new HashMap<>();
+        values.put("orgName", orElse(org.getName()));
+        values.put("industry", orElse(rules.getIndustry()));
+        values.put("aiTier", orElse(org.getAiTier()));
+        values.put("sandboxStrategy", orElse(org.getSandboxStrategy()));
+        values.put("activityType", rules.getActivityType());
+        values.put("doRules", NO_RULES);
+        values.put("dontRules", NO_RULES);
+        int baseTokens = TokenEstimator.estimate(template.render(values));
+        if (baseTokens > tokenBudget) {
+            throw new TokenBudgetTooSmallException(tokenBudget, baseTokens);
+        }
+
+        List<String> doRules = rules.getRules().get("DO");
+        List<String> dontRules = rules.getRules().get("DONT");
+        boolean[] keepDo = new boolean[doRules.size()];
+        boolean[] keepDont = new boolean[dontRules.size()];
+
+        // Both lists are already highest priority first: merge them, stop at the first rule that does not fit
+        int[] doPriorities = rules.getDoPriorities();
+        int[] dontPriorities = rules.getDontPriorities();
+        int used = baseTokens;
+        int included = 0;
+        int nextDo = 0;
+        int nextDont = 0;
+        while (nextDo < keepDo.length || nextDont < keepDont.length) {
+            boolean takeDont = nextDo >= keepDo.length
+                    || (nextDont < keepDont.length && dontPriorities[nextDont] >= doPriorities[nextDo]);
+            String text = takeDont ? dontRules.get(nextDont) : doRules.get(nextDo);
+            int cost = TokenEstimator.estimate(text) + 2;  // "- " and newline
+            if (used + cost > tokenBudget) {
+                break;
+            }
+            used += cost;
+            included++;
+            if (takeDont) {
+                keepDont[nextDont++] = true;
+            } else {
+                keepDo[nextDo++] = true;
+            }
+        }
+
+        values.put("doRules", ruleLines(doRules, keepDo));
+        values.put("dontRules", ruleLines(dontRules, keepDont));
+        String prompt = template.render(values);
+
+        return PromptRenderResponse.builder()
+                .activityType(rules.getActivityType())
+                .industry(rules.getIndustry())
+                .prompt(prompt)
+                .estimatedTokens(TokenEstimator.estimate(prompt))
+                .tokenBudget(tokenBudget)
+                .includedRules(included)
+                .droppedRules(keepDo.length + keepDont.length - included)
+                .build();
+    }
+
+    private static CharSequence ruleLines(List<String> rules, boolean[] keep) {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < keep.length; i++) {
+            if (keep[i]) {
+                lines.append("- ").append(rules.get(i)).append('\n');
+            }
+        }
+        return lines.isEmpty() ? NO_RULES : lines;
+    }
+
+    private static String orElse(String value) {
+        return value == null || value.isBlank() ? UNSPECIFIED : value;
+    }
+
+    private record PromptKey(UUID orgId, String activityType, int tokenBudget) {
+    }
+
+    private record RenderedPrompt(AgentRulesResponse rules, OrgContext org, PromptRenderResponse response)
+            implements CacheWeigher.Weighable {
+
+        @Override
+        public long estimatedBytes() {
+            return 96 + CacheWeigher.estimate(response.getPrompt());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.quad.services.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A prompt template compiled once into literal and {{variable}} segments.
+ *
+ * Rendering appends segments to a presized StringBuilder; no parsing, regex or
+ * intermediate strings per render. Unknown or null variables render as "".
+ */
+final class PromptTemplate {
+
+    private final String[] literals;   // literals[i] precedes variables[i]; one trailing literal
+    private final String[] variables;
+    private final int literalLength;
+
+    private PromptTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    static PromptTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            int close = open < 0 ? -1 : source.indexOf("}}", open + 2);
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            variables.add(source.substring(open + 2, close).trim());
+            position = close + 2;
+        }
+        return new PromptTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    String render(Map<String, ? extends CharSequence> values) {
+        int length = literalLength;
+        for (String variable : variables) {
+            CharSequence value = values.get(variable);
+            length += value != null ? value.length() : 0;
+        }
+
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            CharSequence value = values.get(variables[i]);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        return out.append(literals[literals.length - 1]).toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.quad.services.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.entity.IndustryDefault;
+import com.quad.services.exception.BackendUnavailableException;
+import com.quad.services.exception.OrganizationNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking twin of AgentRulesService (profile "reactive").
+ *
+ * Same tables, same response: the org's industry comes from quad_organizations (defaulting
+ * to "general") and rules from quad_industry_defaults, grouped by the shared
+ * AgentRulesService.toResponse. Queries run on R2DBC, so no thread waits on the database.
+ *
+ * Caching: Caffeine AsyncLoadingCache with the same stale-while-revalidate policy and
+ * byte budget as the blocking cache. Concurrent misses for one key share a single load,
+ * and a failed background refresh keeps serving the previous value.
+ *
+ * Failures: a query slower than query-timeout-ms or a connection error becomes
+ * BackendUnavailableException (503). There is no circuit breaker; the bounded R2DBC pool
+ * (max-acquire-ms) sheds load instead.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveAgentRulesService {
+
+    private static final String ORG_INDUSTRY_SQL =
+            "SELECT COALESCE(NULLIF(TRIM(industry), ''), 'general') AS industry FROM quad_organizations WHERE id = :orgId";
+    private static final String RULES_SQL =
+            "SELECT rule_type, rule_text, priority FROM quad_industry_defaults " +
+            "WHERE industry = :industry AND activity_type = :activityType";
+
+    private final DatabaseClient databaseClient;
+    private final RuleTextDictionary ruleTextDictionary;
+    private final Duration queryTimeout;
+    private final AsyncLoadingCache<RulesCacheKey, AgentRulesResponse> rulesCache;
+
+    public ReactiveAgentRulesService(DatabaseClient databaseClient,
+                                     RuleTextDictionary ruleTextDictionary,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${quad.rules.cache.refresh-minutes:5}") long refreshMinutes,
+                                     @Value("${quad.rules.cache.max-stale-minutes:60}") long maxStaleMinutes,
+                                     @Value("${quad.cache.agent-rules.max-bytes:50331648}") long maxBytes,
+                                     @Value("${quad.reactive.query-timeout-ms:2000}") long queryTimeoutMillis) {
+        this.databaseClient = databaseClient;
+        this.ruleTextDictionary = ruleTextDictionary;
+        this.queryTimeout = Duration.ofMillis(queryTimeoutMillis);
+        this.rulesCache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(AgentRulesService::weigh)
+                .refreshAfterWrite(refreshMinutes, TimeUnit.MINUTES)
+                .expireAfterWrite(maxStaleMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .buildAsync((key, executor) -> load(key).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, rulesCache, "agentRulesReactive");
+    }
+
+    /**
+     * Merged rules for an organization and activity type.
+     * Errors: OrganizationNotFoundException, BackendUnavailableException.
+     */
+    public Mono<AgentRulesResponse> getMergedRules(UUID orgId, String activityType) {
+        return Mono.fromFuture(rulesCache.get(RulesCacheKey.forOrg(orgId, activityType)));
+    }
+
+    /**
+     * Industry defaults without org lookup. Errors: BackendUnavailableException.
+     */
+    public Mono<AgentRulesResponse> getRulesByIndustry(String industry, String activityType) {
+        return Mono.fromFuture(rulesCache.get(RulesCacheKey.forIndustry(industry, activityType)));
+    }
+
+    private Mono<AgentRulesResponse> load(RulesCacheKey key) {
+        Mono<String> industry = key.isOrgKey()
+                ? industryOf(key.orgId())
+                : Mono.just(key.industry());
+        return industry
+                .flatMap(ind -> rules(ind, key.activityType())
+                        .map(rules -> AgentRulesService.toResponse(key.activityType(), ind, rules, ruleTextDictionary)))
+                .onErrorMap(e -> !(e instanceof OrganizationNotFoundException),
+                        e -> new BackendUnavailableException("Rules query failed: " + describe(e), 1000, e));
+    }
+
+    private Mono<String> industryOf(UUID orgId) {
+        return databaseClient.sql(ORG_INDUSTRY_SQL)
+                .bind("orgId", orgId)
+                .map((row, metadata) -> row.get("industry", String.class))
+                .one()
+                .timeout(queryTimeout)
+                .switchIfEmpty(Mono.error(() -> new OrganizationNotFoundException(orgId)));
+    }
+
+    private Mono<List<IndustryDefault>> rules(String industry, String activityType) {
+        return databaseClient.sql(RULES_SQL)
+                .bind("industry", industry)
+                .bind("activityType", activityType)
+                .map((row, metadata) -> {
+                    IndustryDefault rule = new IndustryDefault();
+                    rule.setRuleType(row.get("rule_type", String.class));
+                    rule.setRuleText(row.get("rule_text", String.class));
+                    rule.setPriority(row.get("priority", Integer.class));
+                    return rule;
+                })
+                .all()
+                .collectList()
+                .timeout(queryTimeout);
+    }
+
+    private static String describe(Throwable e) {
+        return e instanceof TimeoutException ? "timed out" : String.valueOf(e.getMessage());
+    }
+}
@@ -0,0 +1,540 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.RuleIndexRow;
+import com.quad.services.dto.RuleSearchHit;
+import com.quad.services.dto.RuleSearchResponse;
+import com.quad.services.repository.IndustryDefaultRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory full-text index over quad_industry_defaults.rule_text.
+ *
+ * - Inverted index: lower-cased alphanumeric tokens (stop words dropped) -> postings
+ *   of (doc, term frequency), doc IDs ascending
+ * - Ranking: BM25 (k1 = 1.2, b = 0.75), evaluated document-at-a-time by merging the
+ *   query terms' postings, so no per-document score array is allocated per search
+ * - Facets: industry / activityType / ruleType filters, plus value counts over the matches
+ * - Rule texts are stored as IDs into the RuleTextDictionary generation current when the
+ *   index was built; the next full rebuild moves to a newer generation after compaction
+ *
+ * Freshness:
+ * - Full rebuild after startup and every rebuild interval (also compacts tombstones and
+ *   picks up deleted rules)
+ * - Incremental sync every sync interval: rules whose updated_at moved are re-indexed
+ *   (old doc tombstoned, new doc appended)
+ */
+@Service
+@Slf4j
+public class RuleSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+    // Queries whose postings add up to more than 1/8 of the docs are scored by accumulation
+    private static final int BROAD_QUERY_RATIO = 8;
+    private static final int IMPACT_TABLE_MAX_TF = 16;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is",
+            "it", "of", "on", "or", "that", "the", "this", "to", "with");
+
+    private final IndustryDefaultRepository industryDefaultRepository;
+    private final RuleTextDictionary ruleTextDictionary;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Index index;
+    private volatile LocalDateTime lastSync;
+
+    public RuleSearchIndex(IndustryDefaultRepository industryDefaultRepository,
+                           RuleTextDictionary ruleTextDictionary,
+                           PlatformTransactionManager transactionManager) {
+        this.industryDefaultRepository = industryDefaultRepository;
+        this.ruleTextDictionary = ruleTextDictionary;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.index = new Index(ruleTextDictionary.current());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(this::rebuild, "rule-search-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    @Scheduled(fixedDelayString = "${quad.rules.search.rebuild-ms:3600000}",
+            initialDelayString = "${quad.rules.search.rebuild-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime syncPoint = LocalDateTime.now();
+        Index next = new Index(ruleTextDictionary.current());
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<RuleIndexRow> rows = industryDefaultRepository.streamRulesForIndex()) {
+                    rows.forEach(next::upsert);
+                }
+            });
+            lastSync = syncPoint;
+            index = next;
+            log.info("Rule search index built: {} rules, {} terms in {}ms",
+                    next.liveDocs, next.postings.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.warn("Rule search index build failed, keeping previous index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quad.rules.search.sync-ms:30000}")
+    public synchronized void sync() {
+        if (lastSync == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<RuleIndexRow> changed = readOnlyTransaction.execute(status ->
+                    industryDefaultRepository.findRulesUpdatedSince(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS)));
+            Index current = index;
+            changed.forEach(current::upsert);
+            lastSync = now;
+        } catch (RuntimeException e) {
+            log.warn("Rule search index sync failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ranked search. Blank facet arguments mean "any".
+     */
+    public RuleSearchResponse search(String query, String industry, String activityType, String ruleType, int limit) {
+        long start = System.nanoTime();
+        RuleSearchResponse response = index.search(query, industry, activityType, ruleType, limit);
+        response.setTookMicros((System.nanoTime() - start) / 1000);
+        return response;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                String term = token.toString();
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    tokens.add(term);
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * (doc, term frequency) pairs for one term, doc IDs ascending (docs are only appended).
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    private record ScoredDoc(int doc, double score) {
+    }
+
+    /**
+     * Score accumulator and touched-doc bitmap for one broad search.
+     */
+    private static final class Scratch {
+        private final float[] scores;
+        private final long[] touched;
+
+        Scratch(int capacity) {
+            scores = new float[capacity];
+            touched = new long[(capacity + 63) / 64];
+        }
+    }
+
+    /**
+     * Distinct values of one facet, numbered in first-seen order.
+     */
+    private static final class Facet {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ordinal(String value) {
+            return ordinals.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        int filter(String value) {
+            if (value == null || value.isBlank()) {
+                return -2;
+            }
+            return ordinals.getOrDefault(value, -1);
+        }
+
+        String value(int ordinal) {
+            return values.get(ordinal);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        Map<String, Integer> counts(int[] counts) {
+            Map<String, Integer> result = new TreeMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    result.put(values.get(i), counts[i]);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * One generation of the index. Updates take the write lock; searches the read lock.
+     */
+    private static final class Index {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<UUID, Integer> docByRuleId = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+        private final RuleTextDictionary.Generation texts;
+
+        // Facet values are stored as ordinals so matches are counted into int arrays
+        private final Facet industryFacet = new Facet();
+        private final Facet activityTypeFacet = new Facet();
+        private final Facet ruleTypeFacet = new Facet();
+
+        // Each doc's (industry, activityType, ruleType) is interned as one combination, so a match
+        // costs one filter lookup and one counter increment; facet counts are summed per combination
+        private final Map<Long, Integer> comboOrdinals = new HashMap<>();
+        private int[] comboIndustries = new int[64];
+        private int[] comboActivityTypes = new int[64];
+        private int[] comboRuleTypes = new int[64];
+        private int comboCount;
+
+        private UUID[] ruleIds = new UUID[1024];
+        private int[] combos = new int[1024];
+        private LocalDateTime[] updatedAts = new LocalDateTime[1024];
+        private int[] textIds = new int[1024];
+        private int[] lengths = new int[1024];
+        private int docCount;
+        private int liveDocs;
+        private long liveLength;
+        private int maxLength;
+        private int maxFrequency;
+
+        // Per-doc scratch for broad multi-term searches, reused (zeroed) across searches
+        private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+        Index(RuleTextDictionary.Generation texts) {
+            this.texts = texts;
+        }
+
+        void upsert(RuleIndexRow row) {
+            lock.writeLock().lock();
+            try {
+                Integer existing = docByRuleId.get(row.getId());
+                if (existing != null) {
+                    if (Objects.equals(updatedAts[existing], row.getUpdatedAt())) {
+                        return;  // Already indexed (sync overlap window)
+                    }
+                    deleted.set(existing);
+                    liveDocs--;
+                    liveLength -= lengths[existing];
+                }
+
+                if (docCount == ruleIds.length) {
+                    grow();
+                }
+                int doc = docCount++;
+                ruleIds[doc] = row.getId();
+                combos[doc] = combo(industryFacet.ordinal(row.getIndustry()),
+                        activityTypeFacet.ordinal(row.getActivityType()), ruleTypeFacet.ordinal(row.getRuleType()));
+                updatedAts[doc] = row.getUpdatedAt();
+                textIds[doc] = texts.intern(row.getRuleText());
+
+                List<String> tokens = tokenize(row.getRuleText());
+                Map<String, Integer> frequencies = new HashMap<>();
+                tokens.forEach(term -> frequencies.merge(term, 1, Integer::sum));
+                frequencies.forEach((term, frequency) -> {
+                    postings.computeIfAbsent(term, t -> new Postings()).add(doc, frequency);
+                    maxFrequency = Math.max(maxFrequency, frequency);
+                });
+
+                lengths[doc] = tokens.size();
+                maxLength = Math.max(maxLength, tokens.size());
+                liveDocs++;
+                liveLength += tokens.size();
+                docByRuleId.put(row.getId(), doc);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        RuleSearchResponse search(String query, String industry, String activityType, String ruleType,
+                                  int limit) {
+            List<String> terms = tokenize(query).stream().distinct().toList();
+
+            lock.readLock().lock();
+            try {
+                Postings[] lists = terms.stream().map(postings::get).filter(Objects::nonNull).toArray(Postings[]::new);
+                double[] idfs = new double[lists.length];
+                long matchesUpperBound = 0;
+                for (int t = 0; t < lists.length; t++) {
+                    int df = Math.min(lists[t].size, Math.max(liveDocs, 1));
+                    idfs[t] = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                    matchesUpperBound += lists[t].size;
+                }
+
+                // BM25 length normalization per document length, computed once per search
+                double averageLength = liveDocs == 0 ? 1 : (double) liveLength / liveDocs;
+                double[] norms = new double[maxLength + 1];
+                for (int length = 0; length <= maxLength; length++) {
+                    norms[length] = K1 * (1 - B + B * length / averageLength);
+                }
+                // tf * (k1 + 1) / (tf + norm) for small tf, by [tf][length]: a lookup instead of a division
+                int tfs = Math.min(maxFrequency, IMPACT_TABLE_MAX_TF) + 1;
+                float[] impacts = new float[tfs * norms.length];
+                for (int tf = 1; tf < tfs; tf++) {
+                    for (int length = 0; length < norms.length; length++) {
+                        impacts[tf * norms.length + length] = (float) (tf * (K1 + 1) / (tf + norms[length]));
+                    }
+                }
+
+                Collector collector = new Collector(industryFacet.filter(industry),
+                        activityTypeFacet.filter(activityType), ruleTypeFacet.filter(ruleType), limit);
+                if (matchesUpperBound * BROAD_QUERY_RATIO >= docCount) {
+                    collectByAccumulation(lists, idfs, norms, impacts, collector);
+                } else {
+                    collectByMerge(lists, idfs, norms, collector);
+                }
+
+                List<RuleSearchHit> hits = new ArrayList<>(collector.top.size());
+                while (!collector.top.isEmpty()) {
+                    ScoredDoc scored = collector.top.poll();
+                    int doc = scored.doc();
+                    int combo = combos[doc];
+                    hits.add(new RuleSearchHit(ruleIds[doc], industryFacet.value(comboIndustries[combo]),
+                            activityTypeFacet.value(comboActivityTypes[combo]), ruleTypeFacet.value(comboRuleTypes[combo]),
+                            texts.text(textIds[doc]), scored.score()));
+                }
+                Collections.reverse(hits);
+
+                int[] industryCounts = new int[industryFacet.size()];
+                int[] activityTypeCounts = new int[activityTypeFacet.size()];
+                int[] ruleTypeCounts = new int[ruleTypeFacet.size()];
+                for (int combo = 0; combo < comboCount; combo++) {
+                    int count = collector.comboCounts[combo];
+                    industryCounts[comboIndustries[combo]] += count;
+                    activityTypeCounts[comboActivityTypes[combo]] += count;
+                    ruleTypeCounts[comboRuleTypes[combo]] += count;
+                }
+
+                Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+                facets.put("industry", industryFacet.counts(industryCounts));
+                facets.put("activityType", activityTypeFacet.counts(activityTypeCounts));
+                facets.put("ruleType", ruleTypeFacet.counts(ruleTypeCounts));
+
+                return RuleSearchResponse.builder()
+                        .query(query)
+                        .total(collector.total)
+                        .hits(hits)
+                        .facets(facets)
+                        .build();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Selective queries: merge the postings document-at-a-time; only matching docs are touched.
+         */
+        private void collectByMerge(Postings[] lists, double[] idfs, double[] norms, Collector collector) {
+            int[] cursors = new int[lists.length];
+            while (true) {
+                // Next candidate: smallest doc ID under any cursor
+                int doc = Integer.MAX_VALUE;
+                for (int t = 0; t < lists.length; t++) {
+                    if (cursors[t] < lists[t].size) {
+                        doc = Math.min(doc, lists[t].docs[cursors[t]]);
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    return;
+                }
+
+                boolean accepted = collector.accepts(doc);
+                double score = 0;
+                double norm = norms[lengths[doc]];
+                for (int t = 0; t < lists.length; t++) {
+                    Postings list = lists[t];
+                    if (cursors[t] < list.size && list.docs[cursors[t]] == doc) {
+                        int tf = list.frequencies[cursors[t]++];
+                        if (accepted) {
+                            score += idfs[t] * tf * (K1 + 1) / (tf + norm);
+                        }
+                    }
+                }
+                if (accepted) {
+                    collector.collect(doc, score);
+                }
+            }
+        }
+
+        /**
+         * Broad queries (postings cover a large share of the index): no per-doc cursor minimum.
+         * One term is scored straight off its postings; several are added into a per-doc score
+         * array, marking touched docs in a bitmap that is then walked in doc order. Scratch
+         * arrays are pooled per index and handed back zeroed, so a search allocates nothing
+         * proportional to the index. BM25 term impacts come from the [tf][length] table.
+         */
+        private void collectByAccumulation(Postings[] lists, double[] idfs, double[] norms, float[] impacts,
+                                           Collector collector) {
+            if (lists.length == 1) {
+                Postings list = lists[0];
+                float idf = (float) idfs[0];
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (collector.accepts(doc)) {
+                        collector.collect(doc, idf * impact(list.frequencies[i], lengths[doc], norms, impacts));
+                    }
+                }
+                return;
+            }
+
+            Scratch scratch = scratchPool.poll();
+            if (scratch == null || scratch.scores.length < docCount) {
+                scratch = new Scratch(ruleIds.length);
+            }
+            float[] scores = scratch.scores;
+            long[] touched = scratch.touched;
+            for (int t = 0; t < lists.length; t++) {
+                Postings list = lists[t];
+                float idf = (float) idfs[t];
+                int[] docs = list.docs;
+                int[] frequencies = list.frequencies;
+                for (int i = 0; i < list.size; i++) {
+                    int doc = docs[i];
+                    scores[doc] += idf * impact(frequencies[i], lengths[doc], norms, impacts);
+                    touched[doc >>> 6] |= 1L << doc;
+                }
+            }
+            for (int word = 0; word < touched.length; word++) {
+                long bits = touched[word];
+                if (bits == 0) {
+                    continue;
+                }
+                touched[word] = 0;
+                while (bits != 0) {
+                    int doc = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    float score = scores[doc];
+                    scores[doc] = 0;
+                    if (collector.accepts(doc)) {
+                        collector.collect(doc, score);
+                    }
+                }
+            }
+            scratchPool.offer(scratch);  // Only returned once fully zeroed
+        }
+
+        private static float impact(int tf, int length, double[] norms, float[] impacts) {
+            int index = tf * norms.length + length;
+            return index < impacts.length ? impacts[index] : (float) (tf * (K1 + 1) / (tf + norms[length]));
+        }
+
+        /**
+         * Facet filters, facet counts and the top-k heap for one search.
+         */
+        private final class Collector {
+            private final boolean[] allowed = new boolean[comboCount];
+            private final int[] comboCounts = new int[comboCount];
+            private final int limit;
+
+            private final PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Comparator.comparingDouble(ScoredDoc::score));
+            private double threshold = Double.NEGATIVE_INFINITY;
+            private int total;
+
+            /**
+             * Facet filters are ordinals: -2 = no filter, -1 = unknown value (no matches).
+             */
+            Collector(int industryFilter, int activityTypeFilter, int ruleTypeFilter, int limit) {
+                for (int combo = 0; combo < comboCount; combo++) {
+                    allowed[combo] = (industryFilter == -2 || comboIndustries[combo] == industryFilter)
+                            && (activityTypeFilter == -2 || comboActivityTypes[combo] == activityTypeFilter)
+                            && (ruleTypeFilter == -2 || comboRuleTypes[combo] == ruleTypeFilter);
+                }
+                this.limit = limit;
+            }
+
+            boolean accepts(int doc) {
+                return allowed[combos[doc]] && !deleted.get(doc);
+            }
+
+            void collect(int doc, double score) {
+                total++;
+                comboCounts[combos[doc]]++;
+
+                if (top.size() < limit) {
+                    top.add(new ScoredDoc(doc, score));
+                    threshold = top.peek().score();
+                } else if (score > threshold) {
+                    top.poll();
+                    top.add(new ScoredDoc(doc, score));
+                    threshold = top.peek().score();
+                }
+            }
+        }
+
+        private int combo(int industry, int activityType, int ruleType) {
+            long key = ((long) industry << 42) | ((long) activityType << 21) | ruleType;
+            return comboOrdinals.computeIfAbsent(key, k -> {
+                if (comboCount == comboIndustries.length) {
+                    comboIndustries = Arrays.copyOf(comboIndustries, comboCount * 2);
+                    comboActivityTypes = Arrays.copyOf(comboActivityTypes, comboCount * 2);
+                    comboRuleTypes = Arrays.copyOf(comboRuleTypes, comboCount * 2);
+                }
+                comboIndustries[comboCount] = industry;
+                comboActivityTypes[comboCount] = activityType;
+                comboRuleTypes[comboCount] = ruleType;
+                return comboCount++;
+            });
+        }
+
+        private void grow() {
+            int capacity = ruleIds.length * 2;
+            ruleIds = Arrays.copyOf(ruleIds, capacity);
+            combos = Arrays.copyOf(combos, capacity);
+            updatedAts = Arrays.copyOf(updatedAts, capacity);
+            textIds = Arrays.copyOf(textIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+    }
+}
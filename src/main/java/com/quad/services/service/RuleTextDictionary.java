@@ -0,0 +1,193 @@
+package com.quad.services.service;
+
+import com.quad.services.config.CacheWeigher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared dictionary of rule texts.
+ *
+ * The same rule text (e.g. "DONT: Store PII in logs") appears under many industries and
+ * activity types. Cached rule responses hold views over int IDs into this dictionary
+ * instead of their own String copies, so each distinct text is held on the heap exactly once.
+ *
+ * Generations: IDs are only meaningful within the Generation that issued them, and every
+ * holder (view in a cached AgentRulesResponse, search index) keeps a reference to its generation.
+ * A generation is append-only; edited or deleted rules leave dead texts behind, so when
+ * the catalog refresh reports that most texts are dead, compactIfSparse() starts a fresh
+ * generation. New responses intern into it; the old one is garbage collected once the
+ * last response built from it has been refreshed or evicted and the search index has
+ * been rebuilt.
+ *
+ * - intern(): lock-free for known texts; new texts are appended under a lock (rare -
+ *   bounded by the size of the rule catalog)
+ * - text(): lock-free array read
+ * - view() / internAll(): zero-copy List over an ID array, materialized only when
+ *   serialized; weighs only its IDs (CacheWeigher), the texts belong to the dictionary
+ */
+@Component
+@Slf4j
+public class RuleTextDictionary implements MeterBinder {
+
+    // Dead texts tolerated before compacting: at least this many, and more than half the live ones
+    private static final int MIN_DEAD_TEXTS = 1024;
+
+    private volatile Generation current = new Generation();
+
+    /**
+     * Generation new responses should intern into.
+     */
+    public Generation current() {
+        return current;
+    }
+
+    /**
+     * Start a new generation when the current one holds many more texts than the catalog uses.
+     *
+     * @param liveTexts distinct rule texts currently in quad_industry_defaults
+     * @return true if a new generation was started
+     */
+    public synchronized boolean compactIfSparse(long liveTexts) {
+        Generation generation = current;
+        long dead = generation.size() - liveTexts;
+        if (dead <= Math.max(MIN_DEAD_TEXTS, liveTexts / 2)) {
+            return false;
+        }
+        current = new Generation();
+        log.info("Rule text dictionary compacted: {} texts, {} live; new generation started", generation.size(), liveTexts);
+        return true;
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Estimated heap held by the current generation: the distinct texts (compact Latin-1
+     * strings), their ID map entries and the ID-indexed array.
+     */
+    public long estimatedBytes() {
+        return current.estimatedBytes();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("quad.rules.dictionary.texts", this, RuleTextDictionary::size)
+                .description("Distinct rule texts held by the shared dictionary")
+                .register(registry);
+        Gauge.builder("quad.rules.dictionary.bytes", this, RuleTextDictionary::estimatedBytes)
+                .description("Estimated heap bytes of the shared rule text dictionary")
+                .baseUnit("bytes")
+                .register(registry);
+        // Alongside the cache budgets; no maximum of its own, it holds each distinct catalog text once
+        Gauge.builder("quad.cache.bytes.used", this, RuleTextDictionary::estimatedBytes)
+                .description("Estimated heap bytes held by the cache")
+                .tag("cache", "ruleTexts")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * One append-only ID space.
+     */
+    public static final class Generation {
+
+        private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] texts = new String[1024];
+        private volatile long textBytes;
+        private int size;
+
+        public int intern(String text) {
+            Integer id = ids.get(text);
+            if (id != null) {
+                return id;
+            }
+            return append(text);
+        }
+
+        public String text(int id) {
+            return texts[id];
+        }
+
+        /**
+         * Read-only List view of the texts behind an ID array.
+         */
+        public List<String> view(int[] textIds) {
+            return new TextList(textIds, this);
+        }
+
+        /**
+         * Intern every text and return them as a view.
+         */
+        public List<String> internAll(List<String> texts) {
+            int[] ids = new int[texts.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = intern(texts.get(i));
+            }
+            return view(ids);
+        }
+
+        public int size() {
+            return ids.size();
+        }
+
+        public long estimatedBytes() {
+            // ConcurrentHashMap node + boxed ID per text, one array slot per capacity
+            return textBytes + 48L * size() + 4L * texts.length;
+        }
+
+        private synchronized int append(String text) {
+            Integer existing = ids.get(text);
+            if (existing != null) {
+                return existing;
+            }
+
+            String[] current = texts;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = text;
+            texts = current;  // Volatile write publishes the slot before the ID becomes visible
+            textBytes += 40 + text.length();
+
+            int id = size++;
+            ids.put(text, id);
+            return id;
+        }
+    }
+
+    private static final class TextList extends AbstractList<String> implements RandomAccess, CacheWeigher.Weighable {
+
+        private final int[] textIds;
+        private final Generation generation;
+
+        private TextList(int[] textIds, Generation generation) {
+            this.textIds = textIds;
+            this.generation = generation;
+        }
+
+        @Override
+        public String get(int index) {
+            return generation.text(textIds[index]);
+        }
+
+        @Override
+        public int size() {
+            return textIds.length;
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return 24 + CacheWeigher.estimate(textIds);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.quad.services.service;
+
+import java.util.UUID;
+
+/**
+ * Key of the agentRules cache.
+ *
+ * Either orgId (merged rules for an org) or industry (industry defaults only) is set.
+ */
+public record RulesCacheKey(UUID orgId, String industry, String activityType) {
+
+    public static RulesCacheKey forOrg(UUID orgId, String activityType) {
+        return new RulesCacheKey(orgId, null, activityType);
+    }
+
+    public static RulesCacheKey forIndustry(String industry, String activityType) {
+        return new RulesCacheKey(null, industry, activityType);
+    }
+
+    public boolean isOrgKey() {
+        return orgId != null;
+    }
+}
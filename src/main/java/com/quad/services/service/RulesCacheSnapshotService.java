@@ -0,0 +1,251 @@
+package com.quad.services.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.quad.services.dto.AgentRulesResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Warm restarts for the agentRules cache.
+ *
+ * - Every interval the hottest cache entries are written to a compact binary snapshot
+ *   (temp file + atomic rename), and once more on graceful shutdown
+ * - On boot, before the web server accepts traffic, the snapshot is memory-mapped and
+ *   loaded into the cache (minus keys of deleted orgs), so hot keys are served from memory
+ *   immediately instead of all missing at once; they are revalidated lazily by the cache's
+ *   refresh interval, not all at boot. A snapshot older than max-stale is ignored (cold start)
+ * - Warm-up time is logged at boot and the cache hit ratio after the first minute
+ *
+ * Point quad.cache.snapshot.path at a volume shared by instances (e.g. a Cloud Run
+ * volume mount) so new instances on scale-out start from the fleet's hot set.
+ *
+ * File format: magic, version, entry count, then per entry
+ * [key kind][orgId | industry][activityType][industry][DO rules][DO priorities][DONT rules][DONT priorities]
+ * with strings as (int length, UTF-8 bytes) and priorities as (int count, ints).
+ * Snapshots of another version are ignored (cold start).
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "quad.cache.snapshot.enabled", havingValue = "true")
+public class RulesCacheSnapshotService implements SmartInitializingSingleton {
+
+    private static final int MAGIC = 0x51525331;  // "QRS1"
+    private static final int VERSION = 2;  // 2: rule priorities
+    private static final byte ORG_KEY = 1;
+    private static final byte INDUSTRY_KEY = 2;
+
+    @Autowired
+    private AgentRulesService agentRulesService;
+
+    @Autowired
+    private RuleTextDictionary ruleTextDictionary;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${quad.cache.snapshot.path}")
+    private String snapshotFile;
+
+    @Value("${quad.cache.snapshot.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${quad.rules.cache.max-stale-minutes:60}")
+    private long maxStaleMinutes;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Path snapshotPath = Path.of(snapshotFile);
+        if (!Files.isReadable(snapshotPath)) {
+            log.info("No agent rules snapshot at {}, starting cold", snapshotPath);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            Duration age = Duration.between(Files.getLastModifiedTime(snapshotPath).toInstant(), Instant.now());
+            if (age.toMinutes() >= maxStaleMinutes) {
+                log.info("Agent rules snapshot {} is {} minutes old (max-stale {}), starting cold",
+                        snapshotPath, age.toMinutes(), maxStaleMinutes);
+                return;
+            }
+            Map<RulesCacheKey, AgentRulesResponse> entries = read(snapshotPath);
+            int seeded = agentRulesService.warmRules(entries);
+            log.info("Warmed agentRules cache with {} entries from snapshot in {}ms, skipped {} keys of deleted orgs",
+                    seeded, (System.nanoTime() - start) / 1_000_000, entries.size() - seeded);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable agent rules snapshot {}: {}", snapshotPath, e.getMessage());
+            return;
+        }
+
+        CacheStats baseline = agentRulesService.rulesCacheStats();
+        taskScheduler.schedule(() -> {
+            CacheStats firstMinute = agentRulesService.rulesCacheStats().minus(baseline);
+            log.info("agentRules first-minute hit ratio: {} ({} hits, {} misses)",
+                    String.format("%.3f", firstMinute.hitRate()), firstMinute.hitCount(), firstMinute.missCount());
+        }, Instant.now().plusSeconds(60));
+    }
+
+    @Scheduled(initialDelayString = "${quad.cache.snapshot.interval-ms:60000}",
+            fixedDelayString = "${quad.cache.snapshot.interval-ms:60000}")
+    public void writeSnapshot() {
+        Map<RulesCacheKey, AgentRulesResponse> entries = agentRulesService.hottestRules(maxEntries);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Path snapshotPath = Path.of(snapshotFile).toAbsolutePath();
+        Path tmp = null;
+        try {
+            Files.createDirectories(snapshotPath.getParent());
+            // Unique temp name: instances sharing the snapshot volume must not write into each other's file
+            tmp = Files.createTempFile(snapshotPath.getParent(), snapshotPath.getFileName().toString(), ".tmp");
+            try (OutputStream file = Files.newOutputStream(tmp)) {
+                write(entries, file);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote agent rules snapshot with {} entries to {}", entries.size(), snapshotPath);
+        } catch (IOException e) {
+            log.warn("Failed to write agent rules snapshot {}: {}", snapshotPath, e.getMessage());
+            deleteQuietly(tmp);
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    private static void deleteQuietly(Path tmp) {
+        if (tmp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", tmp, e.getMessage());
+        }
+    }
+
+    private static void write(Map<RulesCacheKey, AgentRulesResponse> entries, OutputStream file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(entries.size());
+
+        for (Map.Entry<RulesCacheKey, AgentRulesResponse> entry : entries.entrySet()) {
+            RulesCacheKey key = entry.getKey();
+            AgentRulesResponse rules = entry.getValue();
+
+            if (key.isOrgKey()) {
+                out.writeByte(ORG_KEY);
+                out.writeLong(key.orgId().getMostSignificantBits());
+                out.writeLong(key.orgId().getLeastSignificantBits());
+            } else {
+                out.writeByte(INDUSTRY_KEY);
+                writeString(out, key.industry());
+            }
+            writeString(out, key.activityType());
+            writeString(out, rules.getIndustry());
+            writeStrings(out, rules.getDoRules());
+            writeInts(out, rules.getDoPriorities());
+            writeStrings(out, rules.getDontRules());
+            writeInts(out, rules.getDontPriorities());
+        }
+        out.flush();
+    }
+
+    private Map<RulesCacheKey, AgentRulesResponse> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("not an agent rules snapshot (version " + VERSION + ")");
+            }
+
+            int count = buffer.getInt();
+            RuleTextDictionary.Generation texts = ruleTextDictionary.current();
+            Map<RulesCacheKey, AgentRulesResponse> entries = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                byte kind = buffer.get();
+                UUID orgId = kind == ORG_KEY ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+                String keyIndustry = kind == INDUSTRY_KEY ? readString(buffer) : null;
+                String activityType = readString(buffer);
+                String industry = readString(buffer);
+
+                List<String> doRules = texts.internAll(readStrings(buffer));
+                int[] doPriorities = readInts(buffer);
+                List<String> dontRules = texts.internAll(readStrings(buffer));
+                int[] dontPriorities = readInts(buffer);
+
+                entries.put(new RulesCacheKey(orgId, keyIndustry, activityType),
+                        new AgentRulesResponse(activityType, industry, doRules, doPriorities, dontRules, dontPriorities));
+            }
+            return entries;
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(buffer));
+        }
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] values = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * values.length);
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
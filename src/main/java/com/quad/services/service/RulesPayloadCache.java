@@ -0,0 +1,189 @@
+package com.quad.services.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quad.services.config.CacheWeigher;
+import com.quad.services.dto.AgentRulesResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-encoded HTTP payloads for agent rules responses.
+ *
+ * Rule responses are served from the agentRules cache, so the same response object is
+ * returned until it is evicted. This cache keys on that instance (weak keys = identity)
+ * and keeps its serialized JSON, gzip bytes and ETags, so JSON serialization and
+ * compression happen once per cached response instead of once per request.
+ * Entries disappear together with the cached response they belong to.
+ *
+ * The encoded bytes are not part of the agentRules budget, so this cache has its own:
+ * quad.cache.agent-rules.payload-max-bytes (JSON + gzip + ETags per entry). An evicted
+ * payload is simply encoded again on the next request. Reported as
+ * quad.cache.bytes.used / quad.cache.bytes.max with cache=agentRulesPayloads.
+ */
+@Component
+public class RulesPayloadCache implements MeterBinder {
+
+    private static final int GZIP_MIN_BYTES = 1024;  // Same threshold as server.compression.min-response-size
+    private static final String CACHE_NAME = "agentRulesPayloads";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<AgentRulesResponse, EncodedPayload> payloads;
+
+    public RulesPayloadCache(ObjectMapper objectMapper,
+                             @Value("${quad.cache.agent-rules.payload-max-bytes:16777216}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.payloads = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(maxBytes)
+                .weigher((AgentRulesResponse rules, EncodedPayload payload) -> CacheWeigher.weigh(null, payload))
+                .build();
+    }
+
+    /**
+     * Estimated bytes held by the encoded payloads (the responses they key on are counted by agentRules).
+     */
+    public long weightedBytes() {
+        return payloads.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("quad.cache.bytes.used", this, RulesPayloadCache::weightedBytes)
+                .description("Estimated heap bytes held by the cache")
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("quad.cache.bytes.max", payloads, cache -> cache.policy().eviction()
+                        .map(eviction -> (double) eviction.getMaximum()).orElse(0.0))
+                .description("Byte budget of the cache")
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Build the HTTP response for a rules payload, honoring Accept-Encoding (with q-values)
+     * and If-None-Match. Each encoding is a separate representation with its own strong ETag.
+     */
+    public ResponseEntity<byte[]> toResponse(AgentRulesResponse rules, String acceptEncoding, String ifNoneMatch) {
+        EncodedPayload payload = payloads.get(rules, this::encode);
+        boolean gzipped = payload.gzip != null && acceptsGzip(acceptEncoding);
+        String etag = gzipped ? payload.gzipEtag : payload.etag;
+
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzipped) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip);
+        }
+        return builder.body(payload.json);
+    }
+
+    /**
+     * gzip is acceptable when listed (or covered by "*") with a non-zero q-value; "gzip;q=0" refuses it.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQ = null;
+        Double wildcardQ = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQ = q;
+            } else if (coding.equals("*")) {
+                wildcardQ = q;
+            }
+        }
+        double effective = gzipQ != null ? gzipQ : wildcardQ != null ? wildcardQ : 0;
+        return effective > 0;
+    }
+
+    /**
+     * If-None-Match is a list of (possibly weak) ETags or "*"; it uses weak comparison.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private EncodedPayload encode(AgentRulesResponse rules) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(rules);
+            byte[] gzip = json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+            String hash = DigestUtils.md5DigestAsHex(json);
+            return new EncodedPayload(json, gzip, "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize agent rules", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record EncodedPayload(byte[] json, byte[] gzip, String etag, String gzipEtag)
+            implements CacheWeigher.Weighable {
+
+        @Override
+        public long estimatedBytes() {
+            return 16 + CacheWeigher.estimate(json) + CacheWeigher.estimate(gzip)
+                    + CacheWeigher.estimate(etag) + CacheWeigher.estimate(gzipEtag);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.quad.services.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quad.services.dto.AuthResponse;
+import com.quad.services.dto.SignupRequest;
+import com.quad.services.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * De-duplicates signups (double clicks, client retries).
+ *
+ * - Idempotency-Key: a successful signup is remembered under the client's key for
+ *   quad.auth.signup.idempotency-ttl-minutes; replaying the key with the same request
+ *   returns the stored response without touching the DB, reusing it with a different
+ *   request is rejected (IdempotencyKeyMismatchException -> 422)
+ * - In-flight coalescing: concurrent signups for the same email on this instance run one
+ *   transaction; identical requests wait for it and share its result (or its error),
+ *   different requests for that email wait for it and then run normally (account linking)
+ * - Across instances AuthService.signup serializes on a per-email advisory lock
+ *
+ * Requests are compared by a SHA-256 fingerprint so passwords are never kept in memory.
+ */
+@Service
+@Slf4j
+public class SignupCoordinator {
+
+    private record InFlight(String fingerprint, CompletableFuture<AuthResponse> result) {
+    }
+
+    private record StoredResponse(String fingerprint, AuthResponse response) {
+    }
+
+    private final AuthService authService;
+    private final long waitMillis;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, StoredResponse> completed;
+    private final Counter coalesced;
+    private final Counter replayed;
+
+    public SignupCoordinator(AuthService authService,
+                             MeterRegistry meterRegistry,
+                             @Value("${quad.auth.signup.idempotency-ttl-minutes:1440}") long idempotencyTtlMinutes,
+                             @Value("${quad.auth.signup.idempotency-max-keys:100000}") long idempotencyMaxKeys,
+                             @Value("${quad.auth.signup.coalesce-wait-ms:10000}") long waitMillis) {
+        this.authService = authService;
+        this.waitMillis = waitMillis;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxKeys)
+                .expireAfterWrite(idempotencyTtlMinutes, TimeUnit.MINUTES)
+                .build();
+        this.coalesced = Counter.builder("quad.auth.signup.coalesced")
+                .description("Signups answered by a concurrent identical signup")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("quad.auth.signup.idempotent_replays")
+                .description("Signups answered from the Idempotency-Key store")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param idempotencyKey client-supplied Idempotency-Key header, may be null
+     * @throws IdempotencyKeyMismatchException if the key was used for a different request
+     */
+    public AuthResponse signup(SignupRequest request, String idempotencyKey) {
+        String fingerprint = fingerprint(request);
+
+        AuthResponse stored = replay(idempotencyKey, fingerprint);
+        if (stored != null) {
+            return stored;
+        }
+
+        AuthResponse response = coalesce(request, fingerprint, idempotencyKey);
+        // Callers that shared another request's result remember it under their own key too
+        remember(idempotencyKey, fingerprint, response);
+        return response;
+    }
+
+    private AuthResponse replay(String idempotencyKey, String fingerprint) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        StoredResponse stored = completed.getIfPresent(idempotencyKey);
+        if (stored == null) {
+            return null;
+        }
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException();
+        }
+        replayed.increment();
+        return stored.response();
+    }
+
+    private void remember(String idempotencyKey, String fingerprint, AuthResponse response) {
+        if (idempotencyKey != null) {
+            // First writer wins; a racing duplicate with another fingerprint fails on its next replay
+            completed.asMap().putIfAbsent(idempotencyKey, new StoredResponse(fingerprint, response));
+        }
+    }
+
+    private AuthResponse coalesce(SignupRequest request, String fingerprint, String idempotencyKey) {
+        String email = request.getEmail().toLowerCase();
+        while (true) {
+            InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+            InFlight leader = inFlight.putIfAbsent(email, mine);
+
+            if (leader == null) {
+                try {
+                    // A previous leader stores its response before leaving inFlight, so a retry that
+                    // missed it in signup() and became leader right after finds it here
+                    AuthResponse response = replay(idempotencyKey, fingerprint);
+                    if (response == null) {
+                        response = authService.signup(request);
+                        remember(idempotencyKey, fingerprint, response);
+                    }
+                    mine.result().complete(response);
+                    return response;
+                } catch (RuntimeException e) {
+                    mine.result().completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(email, mine);
+                }
+            }
+
+            if (leader.fingerprint().equals(fingerprint)) {
+                AuthResponse shared = await(leader.result(), true);
+                coalesced.increment();
+                return shared;
+            }
+            // Different request for the same email: its outcome depends on the leader's commit, run it next
+            await(leader.result(), false);
+        }
+    }
+
+    /**
+     * Wait for the leader. Its failure is rethrown only to identical requests (shareFailure).
+     */
+    private AuthResponse await(CompletableFuture<AuthResponse> result, boolean shareFailure) {
+        try {
+            return result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (!shareFailure) {
+                return null;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Signup for this email is already in progress, try again");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Signup interrupted");
+        }
+    }
+
+    private static String fingerprint(SignupRequest request) {
+        String canonical = String.join("\u0000",
+                request.getEmail().toLowerCase(),
+                Objects.toString(request.getPassword(), ""),
+                Objects.toString(request.getFullName(), ""),
+                Objects.toString(request.getCompanyName(), ""),
+                Objects.toString(request.getOrgType(), ""),
+                Objects.toString(request.getIsOAuth(), ""),
+                Objects.toString(request.getOauthProvider(), ""),
+                Objects.toString(request.getIsEmailVerified(), ""));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.quad.services.service;
+
+/**
+ * Fast approximate LLM token count (no vocabulary, single pass, no allocation).
+ *
+ * BPE tokenizers average roughly 4 characters per token for English words and code
+ * identifiers, and give most punctuation its own token. Each run of letters/digits
+ * counts ceil(length / 4) tokens, each other non-whitespace character counts one.
+ * Tends to overestimate slightly, which is the safe side for budgets.
+ */
+final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    static int estimate(CharSequence text) {
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 3) / 4;
+    }
+}
@@ -0,0 +1,159 @@
+package com.quad.services.service;
+
+import com.quad.services.config.Bulkhead;
+import com.quad.services.config.Workload;
+import com.quad.services.entity.RefreshToken;
+import com.quad.services.entity.User;
+import com.quad.services.exception.InvalidRefreshTokenException;
+import com.quad.services.repository.RefreshTokenRepository;
+import com.quad.services.repository.UserRepository;
+import com.quad.services.security.JwtUtil;
+import com.quad.services.security.TokenRevocationList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Access + refresh token issuance and rotation.
+ *
+ * - Access tokens are short-lived JWTs (jwt.expiration) carrying their family ID ("fam")
+ * - Refresh tokens are random 256-bit values, stored as SHA-256 only, single use: every
+ *   refresh consumes the token and issues the next one in the same family
+ * - Presenting an already-used refresh token is treated as theft: the whole family is
+ *   revoked (refresh tokens in the DB, access tokens via TokenRevocationList)
+ * - Refresh never verifies a password, so rotating tokens costs no BCrypt work
+ */
+@Service
+@Bulkhead(Workload.AUTH_WRITE)
+@RequiredArgsConstructor
+@Slf4j
+public class TokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final TokenRevocationList tokenRevocationList;
+    private final JwtUtil jwtUtil;
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpirationMillis;
+
+    public record IssuedTokens(String accessToken, String refreshToken) {
+    }
+
+    /**
+     * Start a new token family (login / signup).
+     */
+    @Transactional
+    public IssuedTokens issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    /**
+     * Exchange a refresh token for a new access + refresh token pair.
+     * @throws InvalidRefreshTokenException if the token is unknown, expired, revoked or already used
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public IssuedTokens refresh(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        if (token.getRevokedAt() != null || tokenRevocationList.isRevoked(token.getFamilyId())) {
+            throw new InvalidRefreshTokenException("Refresh token revoked");
+        }
+        if (token.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expired");
+        }
+        if (token.getUsedAt() != null || refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            log.warn("Refresh token reuse for user {}, revoking family {}", token.getUserId(), token.getFamilyId());
+            revokeFamily(token.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("Refresh token already used");
+        }
+
+        User user = userRepository.findById(token.getUserId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        if (!Boolean.TRUE.equals(user.getIsActive())) {
+            revokeFamily(token.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("Account is inactive");
+        }
+
+        return issue(user, token.getFamilyId());
+    }
+
+    /**
+     * Logout: revoke the family the refresh token belongs to (unknown tokens are ignored).
+     */
+    @Transactional
+    public void logout(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Revoke every live session of a user.
+     *
+     * For the account deactivation and password change flows. Neither exists yet (users
+     * are only deactivated by migrations, e.g. V8's duplicate-email cleanup); until then
+     * refresh() refusing inactive users bounds a deactivated user's session to one access
+     * token lifetime.
+     */
+    @Transactional
+    public void revokeAllForUser(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.findActiveFamilies(userId, now).forEach(family -> revokeFamily(family, now));
+    }
+
+    @Scheduled(fixedDelayString = "${quad.auth.revocation.purge-ms:3600000}")
+    @Bulkhead(Workload.DEFAULT)  // housekeeping stays out of the auth-write pool
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now().minusDays(1));
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+
+    private IssuedTokens issue(User user, UUID familyId) {
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        RefreshToken token = new RefreshToken();
+        token.setFamilyId(familyId);
+        token.setUserId(user.getId());
+        token.setTokenHash(hash(refreshToken));
+        token.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpirationMillis * 1_000_000));
+        refreshTokenRepository.save(token);
+
+        String accessToken = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole(), user.getOrgId(), familyId);
+        return new IssuedTokens(accessToken, refreshToken);
+    }
+
+    private void revokeFamily(UUID familyId, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+        tokenRevocationList.revoke(familyId);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
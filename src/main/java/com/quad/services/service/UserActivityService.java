@@ -0,0 +1,191 @@
+package com.quad.services.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.quad.services.dto.ActivityEventRequest;
+import com.quad.services.dto.ActivityTypeCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Recent extension activity per user (RAG context: "what does this user usually do?").
+ *
+ * Write path (no DB work per event):
+ * 1. Event appended to the user's ActivityRing in the userHistory cache
+ * 2. Event queued for persistence (bounded queue; when full the event is kept in
+ *    memory but not persisted, and counted in quad.activity.events.dropped)
+ * 3. A scheduled flusher drains the queue into quad_user_activity_events with JDBC batches,
+ *    at most max-batches-per-flush per run so a backlog cannot hold the scheduler thread
+ *
+ * Read path: top activity types are computed from the ring. A user whose ring was
+ * evicted (or who has not been seen since a restart) gets the persisted history merged
+ * in once, on the first read; a write on a ring miss starts an empty ring instead.
+ */
+@Service
+@Slf4j
+public class UserActivityService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quad_user_activity_events (user_id, org_id, activity_type, outcome, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String RECENT_SQL =
+            "SELECT activity_type, outcome, occurred_at FROM quad_user_activity_events " +
+            "WHERE user_id = ? ORDER BY occurred_at DESC LIMIT ?";
+
+    private record PendingEvent(UUID userId, UUID orgId, String activityType, String outcome, Timestamp occurredAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Object, Object> rings;
+    private final BlockingQueue<PendingEvent> pending;
+    private final int ringCapacity;
+    private final int batchSize;
+    private final int maxBatchesPerFlush;
+
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter persisted;
+
+    public UserActivityService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               CacheManager cacheManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${quad.activity.ring-capacity:100}") int ringCapacity,
+                               @Value("${quad.activity.queue-capacity:100000}") int queueCapacity,
+                               @Value("${quad.activity.batch-size:1000}") int batchSize,
+                               @Value("${quad.activity.max-batches-per-flush:20}") int maxBatchesPerFlush) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rings = ((CaffeineCache) cacheManager.getCache("userHistory")).getNativeCache();
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.ringCapacity = ringCapacity;
+        this.batchSize = batchSize;
+        this.maxBatchesPerFlush = maxBatchesPerFlush;
+
+        this.accepted = Counter.builder("quad.activity.events.accepted").register(meterRegistry);
+        this.dropped = Counter.builder("quad.activity.events.dropped")
+                .description("Events not persisted because the write queue was full")
+                .register(meterRegistry);
+        this.persisted = Counter.builder("quad.activity.events.persisted").register(meterRegistry);
+        Gauge.builder("quad.activity.queue.size", pending, BlockingQueue::size)
+                .description("Events waiting for the batch writer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record events for a user. Never blocks on the DB.
+     * @return Number of events that could not be queued for persistence
+     */
+    public int record(UUID userId, UUID orgId, List<ActivityEventRequest> events) {
+        ActivityRing ring = ringFor(userId);  // No history load here: that waits for the first read
+        int notQueued = 0;
+        for (ActivityEventRequest event : events) {
+            LocalDateTime occurredAt = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+            ring.add(event.getActivityType(), event.getOutcome(), toEpochMillis(occurredAt));
+
+            PendingEvent row = new PendingEvent(userId, orgId, event.getActivityType(), event.getOutcome(),
+                    Timestamp.valueOf(occurredAt));
+            if (!pending.offer(row)) {
+                notQueued++;
+            }
+        }
+
+        accepted.increment(events.size());
+        if (notQueued > 0) {
+            dropped.increment(notQueued);
+        }
+        return notQueued;
+    }
+
+    /**
+     * Most frequent activity types for a user within the window, most frequent first.
+     */
+    public List<ActivityTypeCount> topActivityTypes(UUID userId, Duration window, int limit) {
+        long since = System.currentTimeMillis() - window.toMillis();
+        ActivityRing ring = ringFor(userId);
+        if (!ring.historyLoaded()) {
+            ring.mergeHistory(loadHistory(userId));
+        }
+        return ring.topActivityTypes(since, limit);
+    }
+
+    @Scheduled(fixedDelayString = "${quad.activity.flush-ms:1000}")
+    public void flush() {
+        flush(maxBatchesPerFlush);
+    }
+
+    private void flush(int maxBatches) {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        for (int batches = 0; batches < maxBatches && pending.drainTo(batch, batchSize) > 0; batches++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                    ps.setObject(1, event.userId());
+                    ps.setObject(2, event.orgId());
+                    ps.setString(3, event.activityType());
+                    ps.setString(4, event.outcome());
+                    ps.setTimestamp(5, event.occurredAt());
+                });
+                persisted.increment(batch.size());
+            } catch (RuntimeException e) {
+                dropped.increment(batch.size());
+                log.warn("Dropped {} activity events, batch insert failed: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush(Integer.MAX_VALUE);
+    }
+
+    private ActivityRing ringFor(UUID userId) {
+        return (ActivityRing) rings.get(userId, key -> new ActivityRing(ringCapacity));
+    }
+
+    /**
+     * Most recent persisted events, oldest first so order is preserved.
+     */
+    private List<ActivityRing.Event> loadHistory(UUID userId) {
+        try {
+            List<ActivityRing.Event> rows = readOnlyTransaction.execute(status ->
+                    jdbcTemplate.query(RECENT_SQL, (rs, rowNum) -> new ActivityRing.Event(
+                            rs.getString("activity_type"), rs.getString("outcome"),
+                            rs.getTimestamp("occurred_at").getTime()), userId, ringCapacity));
+            List<ActivityRing.Event> oldestFirst = new ArrayList<>(rows);
+            Collections.reverse(oldestFirst);
+            return oldestFirst;
+        } catch (RuntimeException e) {
+            log.warn("Could not load activity history for user {}, continuing without it: {}", userId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,36 +1,137 @@
 package com.quad.services.service;
 
+import com.quad.services.config.Bulkhead;
+import com.quad.services.config.Workload;
+import com.quad.services.dto.MemberPage;
+import com.quad.services.dto.UserLookupResponse;
+import com.quad.services.dto.UserSummary;
 import com.quad.services.entity.User;
 import com.quad.services.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.*;
 
 @Service
+@Bulkhead(Workload.USER_READ)
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
 
     private final UserRepository userRepository;
+    private final EmailExistenceFilter emailExistenceFilter;
 
     /**
-     * Find user by email address
+     * Find user by email address.
      * @param email User's email address
      * @return Optional containing user if found
      */
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
-        log.info("Looking up user by email: {}", email);
+        log.debug("Looking up user by email: {}", email);
         return userRepository.findByEmail(email);
     }
 
     /**
-     * Check if user exists by email
+     * Check if user exists by email.
+     * Emails the Bloom filter has never seen are answered without a DB query; one registered
+     * on another instance within the filter's sync interval can briefly be reported absent
+     * (signup itself is guarded by the unique lower(email) index).
      * @param email User's email address
      * @return true if user exists, false otherwise
      */
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        if (emailExistenceFilter.definitelyAbsent(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        emailExistenceFilter.recordConfirmation(exists);
+        return exists;
+    }
+
+    /**
+     * Resolve many emails at once: Bloom-filter negatives are dropped up front,
+     * the rest are resolved with a single IN query against the summary projection.
+     * An account created on another instance within the filter's sync interval can be
+     * reported missing here, as in existsByEmail.
+     * @param emails Email addresses (case-insensitive, duplicates ignored)
+     * @return Summaries keyed by lower-cased email, plus the emails with no account
+     */
+    @Transactional(readOnly = true)
+    public UserLookupResponse lookupByEmails(Collection<String> emails) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String email : emails) {
+            if (email != null && !email.isBlank()) {
+                requested.add(email.trim().toLowerCase());
+            }
+        }
+
+        List<String> candidates = requested.stream()
+                .filter(email -> !emailExistenceFilter.definitelyAbsent(email))
+                .toList();
+
+        Map<String, UserSummary> found = new HashMap<>();
+        if (!candidates.isEmpty()) {
+            for (UserSummary summary : userRepository.findSummariesByEmails(candidates)) {
+                found.put(summary.getEmail().toLowerCase(), summary);
+            }
+            candidates.forEach(email -> emailExistenceFilter.recordConfirmation(found.containsKey(email)));
+        }
+
+        Map<String, UserSummary> users = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String email : requested) {
+            UserSummary summary = found.get(email);
+            if (summary != null) {
+                users.put(email, summary);
+            } else {
+                missing.add(email);
+            }
+        }
+
+        log.debug("Bulk user lookup: {} requested, {} queried, {} found", requested.size(), candidates.size(), users.size());
+        return UserLookupResponse.builder()
+                .users(users)
+                .missing(missing)
+                .build();
+    }
+
+    /**
+     * One page of an organization's members, oldest first, using keyset pagination on
+     * (createdAt, id): every page is an index range scan, however deep the client pages.
+     * @param orgId Organization UUID
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit Page size
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public MemberPage listMembers(UUID orgId, String cursor, int limit) {
+        // Fetch one extra row to learn whether another page exists
+        Limit fetch = Limit.of(limit + 1);
+        List<UserSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = userRepository.findMembers(orgId, fetch);
+        } else {
+            MemberCursor after = MemberCursor.decode(cursor);
+            rows = userRepository.findMembersAfter(orgId, after.createdAt(), after.id(), fetch);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<UserSummary> members = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            UserSummary last = members.get(members.size() - 1);
+            nextCursor = new MemberCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return MemberPage.builder()
+                .members(members)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 }
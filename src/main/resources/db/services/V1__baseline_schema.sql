@@ -0,0 +1,57 @@
+-- QUAD Services - Baseline schema
+--
+-- Tables owned by quad-services. Written with IF NOT EXISTS so it is safe to
+-- apply against databases that were created by the shared quad-database scripts.
+
+CREATE TABLE IF NOT EXISTS quad_organizations (
+    id               UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    name             VARCHAR(255) NOT NULL,
+    slug             VARCHAR(255) UNIQUE,
+    contact_email    VARCHAR(255),
+    billing_email    VARCHAR(255),
+    contact_phone    VARCHAR(50),
+    website          VARCHAR(255),
+    industry         VARCHAR(100),
+    team_size        VARCHAR(50),
+    timezone         VARCHAR(100),
+    logo_url         VARCHAR(500),
+    ai_tier          VARCHAR(50),
+    sandbox_strategy VARCHAR(50),
+    is_active        BOOLEAN DEFAULT TRUE,
+    created_at       TIMESTAMP DEFAULT NOW(),
+    updated_at       TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS quad_users (
+    id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    email           VARCHAR(255) NOT NULL UNIQUE,
+    password_hash   VARCHAR(255),
+    name            VARCHAR(255),
+    full_name       VARCHAR(255),
+    role            VARCHAR(50),
+    company_id      UUID,
+    org_id          UUID REFERENCES quad_organizations(id),
+    avatar_url      VARCHAR(500),
+    department      VARCHAR(255),
+    job_title       VARCHAR(255),
+    github_username VARCHAR(255),
+    slack_user_id   VARCHAR(255),
+    timezone        VARCHAR(100),
+    is_active       BOOLEAN DEFAULT TRUE,
+    is_admin        BOOLEAN DEFAULT FALSE,
+    email_verified  BOOLEAN DEFAULT FALSE,
+    last_login_at   TIMESTAMP,
+    created_at      TIMESTAMP DEFAULT NOW(),
+    updated_at      TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS quad_industry_defaults (
+    id            UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    industry      VARCHAR(100) NOT NULL,
+    activity_type VARCHAR(100) NOT NULL,
+    rule_type     VARCHAR(10)  NOT NULL,
+    rule_text     TEXT         NOT NULL,
+    priority      INTEGER DEFAULT 100,
+    created_at    TIMESTAMP DEFAULT NOW(),
+    updated_at    TIMESTAMP DEFAULT NOW()
+);
@@ -0,0 +1,14 @@
+-- QUAD Services - Indexes for hot lookup paths
+--
+-- quad_industry_defaults: every agent-rules request filters on (industry, activity_type)
+-- quad_users:             login/signup/user lookups filter on lower(email)
+-- quad_organizations:     signup slug generation probes slug uniqueness
+
+CREATE INDEX IF NOT EXISTS idx_industry_defaults_industry_activity
+    ON quad_industry_defaults (industry, activity_type);
+
+CREATE INDEX IF NOT EXISTS idx_users_email_lower
+    ON quad_users (lower(email));
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_organizations_slug
+    ON quad_organizations (slug);
@@ -0,0 +1,8 @@
+-- QUAD Services - Organization member listing
+--
+-- GET /organizations/{orgId}/members seeks on (org_id, created_at, id) and returns
+-- a fixed projection; INCLUDE makes every page an index-only range scan.
+
+CREATE INDEX IF NOT EXISTS idx_users_org_created_id
+    ON quad_users (org_id, created_at, id)
+    INCLUDE (email, full_name, role, is_active);
@@ -0,0 +1,17 @@
+-- QUAD Services - Extension activity events
+--
+-- Written in batches by UserActivityService (never per event); read back to
+-- rebuild a user's in-memory history after eviction or restart.
+
+CREATE TABLE IF NOT EXISTS quad_user_activity_events (
+    id            BIGSERIAL PRIMARY KEY,
+    user_id       UUID         NOT NULL,
+    org_id        UUID,
+    activity_type VARCHAR(100) NOT NULL,
+    outcome       VARCHAR(30),
+    occurred_at   TIMESTAMP    NOT NULL,
+    received_at   TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_activity_events_user_occurred
+    ON quad_user_activity_events (user_id, occurred_at DESC);
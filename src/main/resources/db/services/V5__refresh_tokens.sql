@@ -0,0 +1,31 @@
+-- QUAD Services - Refresh tokens and token family revocation
+--
+-- quad_refresh_tokens:         one row per issued refresh token (SHA-256 hash only), rotated on
+--                              every use; all tokens from one login share a family_id
+-- quad_revoked_token_families: families revoked by logout, reuse detection or deactivation;
+--                              instances load recent rows into their in-memory revocation set
+
+CREATE TABLE IF NOT EXISTS quad_refresh_tokens (
+    id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    family_id   UUID      NOT NULL,
+    user_id     UUID      NOT NULL REFERENCES quad_users(id),
+    token_hash  CHAR(64)  NOT NULL UNIQUE,
+    expires_at  TIMESTAMP NOT NULL,
+    used_at     TIMESTAMP,
+    revoked_at  TIMESTAMP,
+    created_at  TIMESTAMP DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family
+    ON quad_refresh_tokens (family_id);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user
+    ON quad_refresh_tokens (user_id);
+
+CREATE TABLE IF NOT EXISTS quad_revoked_token_families (
+    family_id   UUID PRIMARY KEY,
+    revoked_at  TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_token_families_revoked_at
+    ON quad_revoked_token_families (revoked_at);
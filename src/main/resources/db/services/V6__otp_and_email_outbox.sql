@@ -0,0 +1,31 @@
+-- QUAD Services - Email OTP verification and transactional email outbox
+--
+-- quad_email_otps:   current verification code per email (hash only); shared by all
+--                    instances, cached in memory by OtpService
+-- quad_email_outbox: emails written in the same transaction as the business change and
+--                    dispatched asynchronously in batches (FOR UPDATE SKIP LOCKED)
+
+CREATE TABLE IF NOT EXISTS quad_email_otps (
+    email       VARCHAR(255) PRIMARY KEY,
+    code_hash   CHAR(64)     NOT NULL,
+    expires_at  TIMESTAMP    NOT NULL,
+    attempts    INTEGER      NOT NULL DEFAULT 0,
+    created_at  TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS quad_email_outbox (
+    id               BIGSERIAL PRIMARY KEY,
+    recipient        VARCHAR(255) NOT NULL,
+    subject          VARCHAR(255) NOT NULL,
+    body             TEXT         NOT NULL,
+    attempts         INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP    NOT NULL DEFAULT NOW(),
+    last_error       TEXT,
+    sent_at          TIMESTAMP,
+    failed_at        TIMESTAMP,
+    created_at       TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending
+    ON quad_email_outbox (next_attempt_at)
+    WHERE sent_at IS NULL AND failed_at IS NULL;
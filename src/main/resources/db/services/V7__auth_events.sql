@@ -0,0 +1,22 @@
+-- QUAD Services - Authentication audit events (signups, logins, verifications)
+--
+-- Append-only, written by AuthEventLog with COPY in batches (never per request).
+-- Range-partitioned by day on occurred_at: AuthEventLog creates upcoming daily partitions
+-- and drops those past quad.audit.retention-days. Rows outside any daily partition land
+-- in the default partition instead of failing the batch.
+
+CREATE TABLE IF NOT EXISTS quad_auth_events (
+    occurred_at  TIMESTAMP    NOT NULL,
+    event_type   VARCHAR(30)  NOT NULL,
+    user_id      UUID,
+    org_id       UUID,
+    email        VARCHAR(255),
+    client_ip    VARCHAR(64),
+    detail       VARCHAR(255)
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE IF NOT EXISTS quad_auth_events_default PARTITION OF quad_auth_events DEFAULT;
+
+-- Org security report: recent events of one org, newest first (created on every partition)
+CREATE INDEX IF NOT EXISTS idx_auth_events_org_occurred
+    ON quad_auth_events (org_id, occurred_at DESC);
@@ -0,0 +1,37 @@
+-- QUAD Services - Case-insensitive email uniqueness, covering lookups
+--
+-- quad_users.email is UNIQUE only case-sensitively, so "A@x.com" and "a@x.com" could both
+-- exist and lower(email) lookups (findByEmail) would fail with more than one row.
+--
+-- 1. Deduplicate: per lower(email) keep the verified / most recently used / oldest account;
+--    the others are deactivated and renamed (<email>.dup-<id>) rather than deleted, so their
+--    refresh tokens, activity and audit rows stay consistent
+-- 2. Replace idx_users_email_lower with a UNIQUE index that also carries every column of
+--    findSummariesByEmails / existsByEmail (INCLUDE), so those are index-only scans
+-- 3. Drop idx_organizations_slug: it duplicates V1's slug UNIQUE constraint index
+--
+-- quad_industry_defaults keeps its plain (industry, activity_type) index: the rules queries
+-- return rule_text (TEXT), which cannot be INCLUDEd (B-tree tuples are limited to ~2.7 kB).
+
+WITH ranked AS (
+    SELECT id,
+           ROW_NUMBER() OVER (
+               PARTITION BY lower(email)
+               ORDER BY email_verified DESC NULLS LAST, last_login_at DESC NULLS LAST, created_at, id
+           ) AS rn
+    FROM quad_users
+)
+UPDATE quad_users u
+SET email = left(u.email, 200) || '.dup-' || u.id,
+    is_active = FALSE,
+    updated_at = NOW()
+FROM ranked r
+WHERE u.id = r.id AND r.rn > 1;
+
+DROP INDEX IF EXISTS idx_users_email_lower;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_users_email_lower
+    ON quad_users (lower(email))
+    INCLUDE (email, id, full_name, role, org_id, is_active, created_at);
+
+DROP INDEX IF EXISTS idx_organizations_slug;
@@ -0,0 +1,11 @@
+-- QUAD Services - Cap failed OTP guesses per email across re-issued codes
+--
+-- attempts resets with every new code, so re-requesting a code gave a fresh set of
+-- guesses. window_failures counts wrong guesses per email over a rolling window
+-- (quad.auth.otp.failure-window-seconds) and is carried over when a code is re-issued;
+-- at quad.auth.otp.max-failures-per-window no code for the email is accepted until the
+-- window has passed. Rows whose window is still open are kept by the expiry purge.
+
+ALTER TABLE quad_email_otps
+    ADD COLUMN IF NOT EXISTS window_started_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    ADD COLUMN IF NOT EXISTS window_failures   INTEGER   NOT NULL DEFAULT 0;
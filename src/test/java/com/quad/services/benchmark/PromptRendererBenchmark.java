@@ -0,0 +1,85 @@
+package com.quad.services.benchmark;
+
+import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.dto.OrgContext;
+import com.quad.services.dto.PromptRenderResponse;
+import com.quad.services.service.AgentRulesService;
+import com.quad.services.service.OrgContextService;
+import com.quad.services.service.PromptRenderer;
+import com.quad.services.service.RuleTextDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * PromptRenderer.render latency: a cache hit, and a full render (budget trimming + template)
+ * with the rendered-prompt cache disabled.
+ *
+ * Run: mvn -Pbench test-compile exec:exec -Dbench=PromptRendererBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PromptRendererBenchmark {
+
+    @Param({"12", "200"})
+    public int rulesPerType;
+
+    @Param({"500", "32000"})
+    public int tokenBudget;
+
+    private final UUID orgId = UUID.randomUUID();
+    private PromptRenderer cached;
+    private PromptRenderer uncached;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> doRules = new ArrayList<>();
+        List<String> dontRules = new ArrayList<>();
+        int[] priorities = new int[rulesPerType];
+        for (int i = 0; i < rulesPerType; i++) {
+            doRules.add("Validate every request payload against the schema before touching rule set " + i);
+            dontRules.add("Store personally identifiable information in application logs for service " + i);
+            priorities[i] = 1000 - i;
+        }
+        RuleTextDictionary.Generation texts = new RuleTextDictionary().current();
+        AgentRulesResponse rules = new AgentRulesResponse("add_api_endpoint", "healthcare",
+                texts.internAll(doRules), priorities, texts.internAll(dontRules), priorities);
+        OrgContext org = OrgContext.builder().orgId(orgId).name("Acme Health").industry("healthcare")
+                .aiTier("standard").sandboxStrategy("container").build();
+
+        // stubOnly: don't record invocations, which would dominate a cache hit
+        AgentRulesService agentRulesService = mock(AgentRulesService.class, withSettings().stubOnly());
+        when(agentRulesService.getMergedRules(any(UUID.class), anyString())).thenReturn(rules);
+        OrgContextService orgContextService = mock(OrgContextService.class, withSettings().stubOnly());
+        when(orgContextService.get(any(UUID.class))).thenReturn(org);
+
+        ClassPathResource template = new ClassPathResource("prompts/agent-rules.prompt");
+        cached = new PromptRenderer(agentRulesService, orgContextService, template, 8 * 1024 * 1024);
+        uncached = new PromptRenderer(agentRulesService, orgContextService, template, 0);
+    }
+
+    @Benchmark
+    public PromptRenderResponse cacheHit() {
+        return cached.render(orgId, "add_api_endpoint", tokenBudget);
+    }
+
+    @Benchmark
+    public PromptRenderResponse fullRender() {
+        return uncached.render(orgId, "add_api_endpoint", tokenBudget);
+    }
+}
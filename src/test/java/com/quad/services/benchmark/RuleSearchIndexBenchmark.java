@@ -0,0 +1,122 @@
+package com.quad.services.benchmark;
+
+import com.quad.services.dto.RuleIndexRow;
+import com.quad.services.dto.RuleSearchResponse;
+import com.quad.services.repository.IndustryDefaultRepository;
+import com.quad.services.service.RuleSearchIndex;
+import com.quad.services.service.RuleTextDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * RuleSearchIndex.search latency over a synthetic 100k-rule catalog.
+ *
+ * Texts are 8-20 tokens drawn from a Zipf-distributed vocabulary, so the most common
+ * terms ("data", "validate", "user") match a large share of the rules - the broad
+ * queries that have to visit every match for the exact total and facet counts.
+ *
+ * Run: mvn -Pbench test-compile exec:exec -Dbench=RuleSearchIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleSearchIndexBenchmark {
+
+    private static final String[] COMMON = {"data", "validate", "user", "input", "request", "log", "access", "error"};
+    private static final int VOCABULARY = 3_000;
+
+    @Param({"100000"})
+    public int rules;
+
+    @Param({"data", "validate user input", "encryption key rotation", "term1234"})
+    public String query;
+
+    @Param({"", "healthcare"})
+    public String industry;
+
+    private RuleSearchIndex index;
+
+    @Setup
+    public void buildIndex() {
+        List<RuleIndexRow> rows = corpus(rules);
+        IndustryDefaultRepository repository = mock(IndustryDefaultRepository.class);
+        when(repository.streamRulesForIndex()).thenAnswer(call -> rows.stream());
+        index = new RuleSearchIndex(repository, new RuleTextDictionary(), mock(PlatformTransactionManager.class));
+        index.rebuild();
+    }
+
+    @Benchmark
+    public RuleSearchResponse search() {
+        return index.search(query, industry, "", "", 20);
+    }
+
+    static List<RuleIndexRow> corpus(int size) {
+        String[] industries = {"general", "healthcare", "investment_banking", "ecommerce", "insurance",
+                "education", "government", "telecom"};
+        Random random = new Random(42);
+        List<RuleIndexRow> rows = new ArrayList<>(size);
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int i = 0; i < size; i++) {
+            int length = 8 + random.nextInt(13);
+            StringBuilder text = new StringBuilder(random.nextBoolean() ? "DO:" : "DONT:");
+            for (int t = 0; t < length; t++) {
+                text.append(' ').append(word(random));
+            }
+            if (i % 50 == 0) {
+                text.append(" encryption key rotation");
+            }
+            rows.add(new Row(UUID.randomUUID(), industries[i % industries.length], "activity_" + (i % 60),
+                    i % 2 == 0 ? "DO" : "DONT", text.toString(), updatedAt));
+        }
+        return rows;
+    }
+
+    private static String word(Random random) {
+        // 1 in 4 tokens is a common term; the rest follow a Zipf-like tail (rank ~ 1 / u^2)
+        if (random.nextInt(4) == 0) {
+            return COMMON[random.nextInt(COMMON.length)];
+        }
+        double u = random.nextDouble();
+        return "term" + (int) Math.min(VOCABULARY - 1, 1 / (u * u + 1.0 / VOCABULARY) - 1);
+    }
+
+    private record Row(UUID id, String industry, String activityType, String ruleType, String ruleText,
+                       LocalDateTime updatedAt) implements RuleIndexRow {
+        public UUID getId() {
+            return id;
+        }
+
+        public String getIndustry() {
+            return industry;
+        }
+
+        public String getActivityType() {
+            return activityType;
+        }
+
+        public String getRuleType() {
+            return ruleType;
+        }
+
+        public String getRuleText() {
+            return ruleText;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
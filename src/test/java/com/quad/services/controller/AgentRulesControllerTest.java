@@ -0,0 +1,112 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.ActivityTypeRuleCount;
+import com.quad.services.exception.BackendUnavailableException;
+import com.quad.services.exception.OrganizationNotFoundException;
+import com.quad.services.logging.RequestLog;
+import com.quad.services.repository.IndustryDefaultRepository;
+import com.quad.services.service.ActivityTypeCatalog;
+import com.quad.services.service.AgentRulesService;
+import com.quad.services.service.PromptRenderer;
+import com.quad.services.service.RuleTextDictionary;
+import com.quad.services.service.RulesPayloadCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AgentRulesControllerTest {
+
+    private final AgentRulesService agentRulesService = mock(AgentRulesService.class);
+    private final ActivityTypeCatalog activityTypeCatalog = mock(ActivityTypeCatalog.class);
+    private final PromptRenderer promptRenderer = mock(PromptRenderer.class);
+    private final RequestLog requestLog = mock(RequestLog.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AgentRulesController controller = new AgentRulesController(agentRulesService, mock(RulesPayloadCache.class),
+                activityTypeCatalog, promptRenderer, requestLog);
+        ReflectionTestUtils.setField(controller, "maxTokenBudget", 8000);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addPlaceholderValue("api.version.prefix", "/v1")
+                .build();
+        when(activityTypeCatalog.isKnownActivityType(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void backendUnavailableMapsTo503WithRetryAfter() throws Exception {
+        when(agentRulesService.getMergedRules(any(UUID.class), anyString()))
+                .thenThrow(new BackendUnavailableException("agent-rules-db unavailable (circuit open)", 4_200));
+
+        mockMvc.perform(get("/v1/agent-rules")
+                        .param("orgId", UUID.randomUUID().toString())
+                        .param("activityType", "add_api_endpoint"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void promptForUnknownOrgIsLoggedThroughTheRateLimitedRequestLog() throws Exception {
+        UUID orgId = UUID.randomUUID();
+        when(promptRenderer.render(eq(orgId), anyString(), anyInt()))
+                .thenThrow(new OrganizationNotFoundException(orgId));
+
+        mockMvc.perform(get("/v1/agent-rules/prompt")
+                        .param("orgId", orgId.toString())
+                        .param("activityType", "add_api_endpoint"))
+                .andExpect(status().isNotFound());
+        verify(requestLog).expectedFailure(eq("agent-rules-prompt"), anyString(), any());
+    }
+
+    @Test
+    void byIndustryValidatesOnlyTheActivityType() throws Exception {
+        IndustryDefaultRepository repository = mock(IndustryDefaultRepository.class);
+        ActivityTypeRuleCount generalRules = mock(ActivityTypeRuleCount.class);
+        when(generalRules.getIndustry()).thenReturn("general");
+        when(generalRules.getActivityType()).thenReturn("add_api_endpoint");
+        when(generalRules.getRuleCount()).thenReturn(12L);
+        when(repository.countRulesByIndustryAndActivityType()).thenReturn(List.of(generalRules));
+        ActivityTypeCatalog catalog = new ActivityTypeCatalog(repository, new RuleTextDictionary(),
+                mock(PlatformTransactionManager.class));
+        catalog.refresh();
+
+        RulesPayloadCache payloadCache = mock(RulesPayloadCache.class);
+        when(payloadCache.toResponse(any(), isNull(), isNull())).thenReturn(ResponseEntity.ok(new byte[0]));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new AgentRulesController(agentRulesService, payloadCache,
+                        catalog, mock(PromptRenderer.class), mock(RequestLog.class)))
+                .addPlaceholderValue("api.version.prefix", "/v1")
+                .build();
+
+        // A valid industry with no rules of its own for a known activity type
+        mvc.perform(get("/v1/agent-rules/by-industry")
+                        .param("industry", "healthcare")
+                        .param("activityType", "add_api_endpoint"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/v1/agent-rules/by-industry")
+                        .param("industry", "healthcare")
+                        .param("activityType", "no_such_activity"))
+                .andExpect(status().isBadRequest());
+        verify(agentRulesService).getRulesByIndustry(eq("healthcare"), eq("add_api_endpoint"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.AuthResponse;
+import com.quad.services.dto.SignupRequest;
+import com.quad.services.logging.RequestLog;
+import com.quad.services.security.ClientIpResolver;
+import com.quad.services.security.RateLimiter;
+import com.quad.services.service.AuthEventLog;
+import com.quad.services.service.AuthService;
+import com.quad.services.service.SignupCoordinator;
+import com.quad.services.service.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTest {
+
+    private static final String SIGNUP = """
+            {"email": "founder@acme.io", "password": "correct horse battery staple",
+             "fullName": "Ada Founder", "companyName": "%s", "orgType": "enterprise"}""";
+
+    private final AuthService authService = mock(AuthService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SignupCoordinator coordinator = new SignupCoordinator(authService, new SimpleMeterRegistry(), 60, 1_000, 10_000);
+        AuthController controller = new AuthController(authService, mock(RateLimiter.class), mock(TokenService.class),
+                coordinator, mock(RequestLog.class), mock(AuthEventLog.class), new ClientIpResolver(0));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addPlaceholderValue("api.version.prefix", "/v1")
+                .build();
+        when(authService.signup(any(SignupRequest.class))).thenReturn(AuthResponse.builder()
+                .success(true).email("founder@acme.io").orgId(UUID.randomUUID()).build());
+    }
+
+    @Test
+    void idempotencyKeyReplayReturnsOriginalAndMismatchReturns422() throws Exception {
+        mockMvc.perform(post("/v1/auth/signup").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(SIGNUP.formatted("Acme")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/v1/auth/signup").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(SIGNUP.formatted("Acme")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value("founder@acme.io"));
+
+        mockMvc.perform(post("/v1/auth/signup").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(SIGNUP.formatted("Other Co")))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").exists());
+        verify(authService, times(1)).signup(any(SignupRequest.class));
+    }
+}
@@ -0,0 +1,185 @@
+package com.quad.services.controller;
+
+import com.quad.services.dto.UserSummary;
+import com.quad.services.repository.UserRepository;
+import com.quad.services.security.AuthenticatedUser;
+import com.quad.services.service.EmailExistenceFilter;
+import com.quad.services.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrganizationControllerTest {
+
+    private static final UUID ORG_ID = UUID.randomUUID();
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new OrganizationController(
+                    new UserService(userRepository, mock(EmailExistenceFilter.class)), 200))
+            .addPlaceholderValue("api.version.prefix", "/v1")
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .build();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void nextCursorContinuesAfterTheLastMemberOfThePage() throws Exception {
+        signIn(ORG_ID);
+        List<UserSummary> members = members(5);
+        when(userRepository.findMembers(ORG_ID, Limit.of(3))).thenReturn(members.subList(0, 3));
+
+        String body = mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = body.replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+        UserSummary last = members.get(1);
+        when(userRepository.findMembersAfter(ORG_ID, last.getCreatedAt(), last.getId(), Limit.of(3)))
+                .thenReturn(members.subList(2, 5));
+
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID)
+                        .param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members[0].email").value("member2@quad.dev"))
+                .andExpect(jsonPath("$.members[1].email").value("member3@quad.dev"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void pageThatExactlyFillsTheLimitIsTheLastPage() throws Exception {
+        signIn(ORG_ID);
+        when(userRepository.findMembers(ORG_ID, Limit.of(4))).thenReturn(members(3));
+
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(3))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void emptyOrganizationReturnsAnEmptyLastPage() throws Exception {
+        signIn(ORG_ID);
+        when(userRepository.findMembers(ORG_ID, Limit.of(51))).thenReturn(List.of());
+
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(0))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void limitOutsideTheAllowedRangeIsRejected() throws Exception {
+        signIn(ORG_ID);
+
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID).param("limit", "201"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("limit must be between 1 and 200"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void malformedOrTamperedCursorIsRejected() throws Exception {
+        signIn(ORG_ID);
+        String wrongDate = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("yesterday|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not-a-cursor!", "bm8tc2VwYXJhdG9y", wrongDate)) {
+            mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID).param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Invalid cursor"));
+        }
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void cursorFromAnotherOrganizationStillOnlyReadsTheCallersOrganization() throws Exception {
+        // A cursor is only a seek position; the org always comes from the path, checked against the token
+        signIn(ORG_ID);
+        UUID foreignMember = UUID.randomUUID();
+        String foreignCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((T0 + "|" + foreignMember).getBytes(StandardCharsets.UTF_8));
+        when(userRepository.findMembersAfter(eq(ORG_ID), eq(T0), eq(foreignMember), any())).thenReturn(List.of());
+
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID).param("cursor", foreignCursor))
+                .andExpect(status().isOk());
+        verify(userRepository).findMembersAfter(eq(ORG_ID), eq(T0), eq(foreignMember), any());
+    }
+
+    @Test
+    void memberOfAnotherOrganizationIsForbidden() throws Exception {
+        signIn(UUID.randomUUID());
+
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("Not a member of this organization"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void serviceKeyCallerIsForbiddenNotAServerError() throws Exception {
+        // ServiceCredentialFilter authenticates with a plain "service" principal, not an AuthenticatedUser
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "service", null, List.of(new SimpleGrantedAuthority("ROLE_SERVICE"))));
+
+        mockMvc.perform(get("/v1/organizations/{orgId}/members", ORG_ID))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(userRepository);
+    }
+
+    private static void signIn(UUID orgId) {
+        AuthenticatedUser user = new AuthenticatedUser(UUID.randomUUID(), "caller@quad.dev", "member", orgId);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private static List<UserSummary> members(int count) {
+        List<UserSummary> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(new Member(UUID.randomUUID(), "member" + i + "@quad.dev", T0.plusMinutes(i)));
+        }
+        return members;
+    }
+
+    private record Member(UUID id, String email, LocalDateTime createdAt) implements UserSummary {
+        public UUID getId() { return id; }
+        public String getEmail() { return email; }
+        public String getFullName() { return null; }
+        public String getRole() { return "member"; }
+        public UUID getOrgId() { return ORG_ID; }
+        public Boolean getIsActive() { return true; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+}
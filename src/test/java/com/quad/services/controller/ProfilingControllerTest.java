@@ -0,0 +1,78 @@
+package com.quad.services.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quad.services.security.AuthenticatedUser;
+import com.quad.services.security.PlatformOperators;
+import com.quad.services.service.ProfilingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProfilingControllerTest {
+
+    private static final UUID OPERATOR_ID = UUID.randomUUID();
+
+    private final ProfilingService profilingService = mock(ProfilingService.class);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void operatorIsAdmittedByUserId() throws Exception {
+        signIn(OPERATOR_ID, "ops@quad.dev");
+        when(profilingService.latestReport()).thenReturn(Optional.empty());
+
+        mockMvc(true).perform(get("/v1/admin/profiling/recordings/latest"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("No profiling session on this instance"));
+    }
+
+    @Test
+    void sameEmailWithAnotherUserIdIsForbidden() throws Exception {
+        // Anyone can sign up with an operator's address; only the server-issued ID counts
+        signIn(UUID.randomUUID(), "ops@quad.dev");
+
+        mockMvc(true).perform(get("/v1/admin/profiling/recordings/latest"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void disabledByDefaultReturns404EvenForOperators() throws Exception {
+        signIn(OPERATOR_ID, "ops@quad.dev");
+
+        mockMvc(false).perform(get("/v1/admin/profiling/recordings/latest"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Profiling is disabled"));
+    }
+
+    private MockMvc mockMvc(boolean enabled) {
+        ProfilingController controller = new ProfilingController(profilingService, new ObjectMapper(),
+                new PlatformOperators(OPERATOR_ID.toString()), enabled, 120);
+        return MockMvcBuilders.standaloneSetup(controller)
+                .addPlaceholderValue("api.version.prefix", "/v1")
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+    }
+
+    private static void signIn(UUID userId, String email) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, email, "member", UUID.randomUUID());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.quad.services.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientIpResolverTest {
+
+    @Test
+    void usesRightMostHopOnCloudRun() {
+        MockHttpServletRequest request = request("6.6.6.6, 7.7.7.7, 203.0.113.9");
+
+        assertThat(new ClientIpResolver(0).clientIp(request)).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    void rotatingTheClientSuppliedPrefixDoesNotChangeTheKey() {
+        ClientIpResolver resolver = new ClientIpResolver(0);
+
+        assertThat(resolver.clientIp(request("1.1.1.1, 203.0.113.9")))
+                .isEqualTo(resolver.clientIp(request("2.2.2.2, 203.0.113.9")));
+    }
+
+    @Test
+    void skipsTrustedLoadBalancerHop() {
+        MockHttpServletRequest request = request("6.6.6.6, 203.0.113.9, 35.191.0.1");
+
+        assertThat(new ClientIpResolver(1).clientIp(request)).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    void fallsBackToPeerWhenHeaderIsMissingOrTooShort() {
+        MockHttpServletRequest noHeader = new MockHttpServletRequest();
+        noHeader.setRemoteAddr("10.0.0.5");
+
+        assertThat(new ClientIpResolver(0).clientIp(noHeader)).isEqualTo("10.0.0.5");
+        assertThat(new ClientIpResolver(1).clientIp(request("203.0.113.9"))).isEqualTo("10.0.0.5");
+    }
+
+    private static MockHttpServletRequest request(String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.5");
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+}
@@ -0,0 +1,50 @@
+package com.quad.services.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceCredentialFilterTest {
+
+    private final ServiceCredentialFilter filter = new ServiceCredentialFilter("old-key, new-key");
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void configuredKeyAuthenticatesAsService() throws Exception {
+        Authentication authentication = authenticate("new-key");
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_SERVICE");
+    }
+
+    @Test
+    void unknownOrMissingKeyStaysAnonymous() throws Exception {
+        assertThat(authenticate("new-key-2")).isNull();
+        assertThat(authenticate(null)).isNull();
+        assertThat(authenticateWith(new ServiceCredentialFilter(""), "")).isNull();
+    }
+
+    private Authentication authenticate(String key) throws Exception {
+        return authenticateWith(filter, key);
+    }
+
+    private static Authentication authenticateWith(ServiceCredentialFilter filter, String key) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/users/lookup");
+        if (key != null) {
+            request.addHeader(ServiceCredentialFilter.HEADER, key);
+        }
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,56 @@
+package com.quad.services.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.quad.services.repository.IndustryDefaultRepository;
+import com.quad.services.repository.OrganizationRepository;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * AgentRulesService wired with mocks (no Spring context): synchronous refreshes, caller-supplied clock.
+ * Every org passed to OrganizationRepository.findExistingIds exists unless a test replaces the mock.
+ */
+final class AgentRulesServiceFixture {
+
+    private AgentRulesServiceFixture() {
+    }
+
+    static AgentRulesService create(IndustryDefaultRepository repository, OrgContextService orgContextService,
+                                    Ticker ticker, long maxBytes, double tenantMaxShare, int failureThreshold) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        OrganizationRepository organizationRepository = mock(OrganizationRepository.class);
+        when(organizationRepository.findExistingIds(anyCollection()))
+                .thenAnswer(call -> new HashSet<>(call.<Collection<?>>getArgument(0)));
+
+        AgentRulesService service = new AgentRulesService();
+        ReflectionTestUtils.setField(service, "industryDefaultRepository", repository);
+        ReflectionTestUtils.setField(service, "organizationRepository", organizationRepository);
+        ReflectionTestUtils.setField(service, "orgContextService", orgContextService);
+        ReflectionTestUtils.setField(service, "ruleTextDictionary", new RuleTextDictionary());
+        ReflectionTestUtils.setField(service, "activityTypeCatalog", mock(ActivityTypeCatalog.class));
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "cacheManager", new CaffeineCacheManager());
+        ReflectionTestUtils.setField(service, "refreshMinutes", 5L);
+        ReflectionTestUtils.setField(service, "maxStaleMinutes", 60L);
+        ReflectionTestUtils.setField(service, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(service, "tenantMaxShare", tenantMaxShare);
+        ReflectionTestUtils.setField(service, "circuitFailureThreshold", failureThreshold);
+        ReflectionTestUtils.setField(service, "circuitOpenMillis", 60_000L);
+        service.ticker = ticker;
+        service.refreshExecutor = Runnable::run;
+        service.initCache();
+        return service;
+    }
+}
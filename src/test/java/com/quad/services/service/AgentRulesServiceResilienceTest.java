@@ -0,0 +1,99 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.entity.IndustryDefault;
+import com.quad.services.exception.BackendUnavailableException;
+import com.quad.services.repository.IndustryDefaultRepository;
+import com.quad.services.resilience.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Failure injection for the rules read path: the repository times out (as the 2s query
+ * timeout does when the DB stalls) and the cache / circuit breaker must absorb it.
+ */
+class AgentRulesServiceResilienceTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private final IndustryDefaultRepository repository = mock(IndustryDefaultRepository.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private AgentRulesService service;
+
+    @BeforeEach
+    void setUp() {
+        service = AgentRulesServiceFixture.create(repository, mock(OrgContextService.class), nanos::get,
+                1_000_000L, 1.0, FAILURE_THRESHOLD);
+    }
+
+    @Test
+    void servesStaleRulesWhileTheBackendFailsAndOpensTheCircuit() {
+        when(repository.findByIndustryAndActivityType("general", "add_api_endpoint"))
+                .thenReturn(List.of(rule("Validate input")));
+        AgentRulesResponse fresh = service.getRulesByIndustry("general", "add_api_endpoint");
+
+        // DB stalls: every query now hits its timeout
+        when(repository.findByIndustryAndActivityType(anyString(), anyString()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));  // past refresh-minutes, within max-stale
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            // Each read triggers a (failing) background refresh but still gets the last good value
+            assertThat(service.getRulesByIndustry("general", "add_api_endpoint")).isSameAs(fresh);
+        }
+
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(service.getRulesByIndustry("general", "add_api_endpoint")).isSameAs(fresh);
+    }
+
+    @Test
+    void missWhileTheCircuitIsOpenFailsFastWithoutTouchingTheDatabase() {
+        when(repository.findByIndustryAndActivityType(anyString(), anyString()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> service.getRulesByIndustry("general", "add_api_endpoint"))
+                    .isInstanceOf(BackendUnavailableException.class);
+        }
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        clearInvocations(repository);
+
+        assertThatThrownBy(() -> service.getRulesByIndustry("healthcare", "create_ui_screen"))
+                .isInstanceOf(BackendUnavailableException.class)
+                .satisfies(e -> assertThat(((BackendUnavailableException) e).getRetryAfterMillis()).isPositive());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void expiredEntriesAreDroppedAfterMaxStale() {
+        when(repository.findByIndustryAndActivityType("general", "add_api_endpoint"))
+                .thenReturn(List.of(rule("Validate input")))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+        service.getRulesByIndustry("general", "add_api_endpoint");
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(61));
+
+        assertThatThrownBy(() -> service.getRulesByIndustry("general", "add_api_endpoint"))
+                .isInstanceOf(BackendUnavailableException.class);
+    }
+
+    private static IndustryDefault rule(String text) {
+        IndustryDefault rule = new IndustryDefault();
+        rule.setIndustry("general");
+        rule.setActivityType("add_api_endpoint");
+        rule.setRuleType("DO");
+        rule.setRuleText(text);
+        rule.setPriority(100);
+        return rule;
+    }
+}
@@ -0,0 +1,85 @@
+package com.quad.services.service;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.quad.services.dto.OrgContext;
+import com.quad.services.entity.IndustryDefault;
+import com.quad.services.repository.IndustryDefaultRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgentRulesServiceTenantShareTest {
+
+    private static final long MAX_BYTES = 200_000;
+    private static final double TENANT_SHARE = 0.25;
+
+    private final IndustryDefaultRepository repository = mock(IndustryDefaultRepository.class);
+    private final OrgContextService orgContextService = mock(OrgContextService.class);
+    private AgentRulesService service;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findByIndustryAndActivityType(anyString(), anyString()))
+                .thenAnswer(call -> List.of(rule(call.getArgument(1))));
+        when(orgContextService.get(any(UUID.class)))
+                .thenAnswer(call -> OrgContext.builder().orgId(call.getArgument(0)).industry("general").build());
+        service = AgentRulesServiceFixture.create(repository, orgContextService, Ticker.systemTicker(),
+                MAX_BYTES, TENANT_SHARE, 5);
+    }
+
+    @Test
+    void chattyOrgIsTrimmedToItsShareWithoutEvictingOthers() {
+        UUID quietOrg = UUID.randomUUID();
+        UUID chattyOrg = UUID.randomUUID();
+        service.getMergedRules(quietOrg, "add_api_endpoint");
+        long quietBytes = service.bytesOfTenant(quietOrg);
+        assertThat(quietBytes).isPositive();
+
+        for (int i = 0; i < 2_000; i++) {
+            service.getMergedRules(chattyOrg, "activity_" + i);
+        }
+
+        long limit = (long) (MAX_BYTES * TENANT_SHARE);
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(service.bytesOfTenant(chattyOrg)).isLessThanOrEqualTo(limit));
+        assertThat(service.bytesOfTenant(quietOrg)).isEqualTo(quietBytes);
+        assertThat(service.hottestRules(Integer.MAX_VALUE))
+                .containsKey(RulesCacheKey.forOrg(quietOrg, "add_api_endpoint"));
+    }
+
+    @Test
+    void countersFollowReplacementAndInvalidation() {
+        UUID org = UUID.randomUUID();
+        service.getMergedRules(org, "add_api_endpoint");
+        long bytes = service.bytesOfTenant(org);
+
+        service.warmRules(service.hottestRules(10));  // replaces the value with itself
+        assertThat(service.bytesOfTenant(org)).isEqualTo(bytes);
+
+        // What @CacheEvict("agentRules", allEntries = true) does through the CacheManager
+        ((CacheManager) ReflectionTestUtils.getField(service, "cacheManager")).getCache("agentRules").clear();
+        assertThat(service.bytesOfTenant(org)).isZero();
+    }
+
+    private static IndustryDefault rule(String activityType) {
+        IndustryDefault rule = new IndustryDefault();
+        rule.setIndustry("general");
+        rule.setActivityType(activityType);
+        rule.setRuleType("DO");
+        rule.setRuleText("Validate every request payload for " + activityType);
+        rule.setPriority(100);
+        return rule;
+    }
+}
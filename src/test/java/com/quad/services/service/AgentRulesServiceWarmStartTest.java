@@ -0,0 +1,118 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.dto.OrgContext;
+import com.quad.services.repository.IndustryDefaultRepository;
+import com.quad.services.repository.OrganizationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Warm start from a snapshot: no DB load per seeded key at boot, deleted orgs are not served.
+ */
+class AgentRulesServiceWarmStartTest {
+
+    private static final UUID LIVE_ORG = UUID.randomUUID();
+    private static final UUID DELETED_ORG = UUID.randomUUID();
+
+    private final IndustryDefaultRepository repository = mock(IndustryDefaultRepository.class);
+    private final OrgContextService orgContextService = mock(OrgContextService.class);
+    private final OrganizationRepository organizationRepository = mock(OrganizationRepository.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private AgentRulesService service;
+
+    @BeforeEach
+    void setUp() {
+        service = AgentRulesServiceFixture.create(repository, orgContextService, nanos::get, 1_000_000L, 1.0, 3);
+        ReflectionTestUtils.setField(service, "organizationRepository", organizationRepository);
+        when(organizationRepository.findExistingIds(anyCollection())).thenReturn(Set.of(LIVE_ORG));
+        when(orgContextService.get(LIVE_ORG))
+                .thenReturn(OrgContext.builder().orgId(LIVE_ORG).industry("general").build());
+        when(repository.findByIndustryAndActivityType(anyString(), anyString())).thenReturn(List.of());
+    }
+
+    @Test
+    void seededKeysAreServedWithoutLoadingThemAtBoot() {
+        Map<RulesCacheKey, AgentRulesResponse> snapshot = snapshot();
+
+        assertThat(service.warmRules(snapshot)).isEqualTo(2);
+
+        assertThat(service.getRulesByIndustry("general", "add_api_endpoint"))
+                .isSameAs(snapshot.get(RulesCacheKey.forIndustry("general", "add_api_endpoint")));
+        assertThat(service.getMergedRules(LIVE_ORG, "add_api_endpoint"))
+                .isSameAs(snapshot.get(RulesCacheKey.forOrg(LIVE_ORG, "add_api_endpoint")));
+        verifyNoInteractions(repository);
+        // One existence query for all snapshot orgs
+        verify(organizationRepository).findExistingIds(Set.of(LIVE_ORG, DELETED_ORG));
+    }
+
+    @Test
+    void keysOfDeletedOrgsAreNotSeeded() {
+        service.warmRules(snapshot());
+
+        assertThat(service.hottestRules(10))
+                .containsKey(RulesCacheKey.forOrg(LIVE_ORG, "add_api_endpoint"))
+                .doesNotContainKey(RulesCacheKey.forOrg(DELETED_ORG, "add_api_endpoint"));
+    }
+
+    @Test
+    void seededKeysRefreshOnlyWhenReadAfterTheRefreshInterval() {
+        service.warmRules(snapshot());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+        service.getRulesByIndustry("general", "add_api_endpoint");
+
+        verify(repository, times(1)).findByIndustryAndActivityType(anyString(), anyString());
+        verify(orgContextService, never()).get(any());
+    }
+
+    @Test
+    void everythingIsSeededWhenTheOrgCheckFails() {
+        when(organizationRepository.findExistingIds(anyCollection()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        assertThat(service.warmRules(snapshot())).isEqualTo(3);
+    }
+
+    @Test
+    void refreshDropsTheEntryOfAnOrgDeletedSinceItWasCached() {
+        UUID org = UUID.randomUUID();
+        when(orgContextService.get(org))
+                .thenReturn(OrgContext.builder().orgId(org).industry("general").build())
+                .thenReturn(null);
+        service.getMergedRules(org, "add_api_endpoint");
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));  // past refresh-minutes, within max-stale
+
+        service.getMergedRules(org, "add_api_endpoint");  // serves the old value, the refresh finds no org
+
+        assertThat(service.hottestRules(10)).doesNotContainKey(RulesCacheKey.forOrg(org, "add_api_endpoint"));
+    }
+
+    private static Map<RulesCacheKey, AgentRulesResponse> snapshot() {
+        Map<RulesCacheKey, AgentRulesResponse> snapshot = new LinkedHashMap<>();
+        snapshot.put(RulesCacheKey.forIndustry("general", "add_api_endpoint"), rules("general"));
+        snapshot.put(RulesCacheKey.forOrg(LIVE_ORG, "add_api_endpoint"), rules("general"));
+        snapshot.put(RulesCacheKey.forOrg(DELETED_ORG, "add_api_endpoint"), rules("general"));
+        return snapshot;
+    }
+
+    private static AgentRulesResponse rules(String industry) {
+        return new AgentRulesResponse("add_api_endpoint", industry,
+                List.of("Validate input"), new int[] {100}, List.of(), new int[0]);
+    }
+}
@@ -0,0 +1,98 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AuthEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthEventLogTest {
+
+    private static final String LONG_EMAIL = "a".repeat(300) + "@example.com";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> insertedEmails = new CopyOnWriteArrayList<>();
+
+    @Test
+    void oversizedEmailIsCutToTheColumnWidth() {
+        AuthEvent event = AuthEvent.of(AuthEvent.Type.LOGIN_FAILED, null, null, LONG_EMAIL, "1".repeat(100), null);
+
+        assertThat(event.email()).hasSize(255);
+        assertThat(event.clientIp()).hasSize(64);
+    }
+
+    @Test
+    void rowTheDatabaseRefusesIsDroppedAndTheRestOfTheBatchPersisted() throws Exception {
+        // A row built without AuthEvent.of still fails the column check: only it may be lost
+        AuthEventLog eventLog = startLog(new AtomicBoolean());
+        for (int i = 0; i < 9; i++) {
+            eventLog.record(event("user" + i + "@example.com"));
+        }
+        eventLog.record(event(LONG_EMAIL));
+        eventLog.shutdown();
+
+        assertThat(insertedEmails).hasSize(9).doesNotContain(LONG_EMAIL);
+        assertThat(meterRegistry.counter("quad.audit.events.rejected").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("quad.audit.events.persisted").count()).isEqualTo(9);
+    }
+
+    @Test
+    void transientFailureKeepsTheBatchForRetry() throws Exception {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        AuthEventLog eventLog = startLog(databaseDown);
+        eventLog.record(event("user@example.com"));
+        Thread.sleep(300);
+        databaseDown.set(false);
+        eventLog.shutdown();
+
+        assertThat(insertedEmails).containsExactly("user@example.com");
+        assertThat(meterRegistry.counter("quad.audit.events.rejected").count()).isZero();
+    }
+
+    private AuthEventLog startLog(AtomicBoolean databaseDown) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        doAnswer(call -> {
+            if (databaseDown.get()) {
+                throw new TransientDataAccessResourceException("connection refused");
+            }
+            List<Object[]> rows = call.getArgument(1);
+            if (rows.stream().anyMatch(row -> ((String) row[4]).length() > 255)) {
+                throw new DataIntegrityViolationException("value too long",
+                        new SQLException("value too long for type character varying(255)", "22001"));
+            }
+            rows.forEach(row -> insertedEmails.add((String) row[4]));
+            return new int[rows.size()];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        AuthEventLog eventLog = new AuthEventLog(jdbcTemplate, mock(PlatformTransactionManager.class), meterRegistry,
+                100, 100, 50, 5, 90, 0);
+        eventLog.start();
+        return eventLog;
+    }
+
+    private static AuthEvent event(String email) {
+        return new AuthEvent(LocalDateTime.now(), AuthEvent.Type.LOGIN, UUID.randomUUID(), UUID.randomUUID(),
+                email, "203.0.113.7", null);
+    }
+}
@@ -0,0 +1,83 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AuthResponse;
+import com.quad.services.dto.SignupRequest;
+import com.quad.services.entity.Organization;
+import com.quad.services.entity.User;
+import com.quad.services.repository.OrganizationRepository;
+import com.quad.services.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenService tokenService = mock(TokenService.class);
+    private final OtpService otpService = mock(OtpService.class);
+    private final OrganizationRepository organizationRepository = mock(OrganizationRepository.class);
+    private final EmailExistenceFilter emailExistenceFilter = mock(EmailExistenceFilter.class);
+    private final AuthService authService = new AuthService(userRepository, organizationRepository,
+            mock(PasswordEncoder.class), emailExistenceFilter, mock(OrgContextService.class),
+            tokenService, otpService, mock(PlatformTransactionManager.class));
+
+    @Test
+    void verifiedFlagOnExistingEmailSendsCodeInsteadOfTokens() {
+        when(userRepository.findByEmail("owner@acme.io")).thenReturn(Optional.of(existingUser()));
+
+        SignupRequest request = signupRequest("enterprise");
+        request.setIsEmailVerified(true);
+        AuthResponse response = authService.signup(request);
+
+        assertThat(response.getToken()).isNull();
+        assertThat(response.getRefreshToken()).isNull();
+        assertThat(response.getRequiresVerification()).isTrue();
+        verify(otpService).issue("owner@acme.io");
+        verify(tokenService, never()).issue(any());
+    }
+
+    @Test
+    void emailRegisteredOnAnotherInstanceIsLinkedAfterTheInsertCollides() {
+        // This instance's filter has not synced the other instance's signup yet
+        when(emailExistenceFilter.definitelyAbsent("owner@acme.io")).thenReturn(true);
+        when(organizationRepository.save(any(Organization.class))).thenAnswer(call -> call.getArgument(0));
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates idx_users_email_lower"));
+        when(userRepository.findByEmail("owner@acme.io")).thenReturn(Optional.of(existingUser()));
+
+        AuthResponse response = authService.signup(signupRequest("startup"));
+
+        assertThat(response.getRequiresVerification()).isTrue();
+        verify(emailExistenceFilter).add("owner@acme.io");
+        verify(userRepository, times(1)).findByEmail("owner@acme.io");
+        verify(otpService).issue("owner@acme.io");
+    }
+
+    private static User existingUser() {
+        User existing = new User();
+        existing.setId(UUID.randomUUID());
+        existing.setEmail("owner@acme.io");
+        return existing;
+    }
+
+    private static SignupRequest signupRequest(String orgType) {
+        SignupRequest request = new SignupRequest();
+        request.setEmail("Owner@acme.io");
+        request.setFullName("Mallory");
+        request.setCompanyName("Acme");
+        request.setOrgType(orgType);
+        return request;
+    }
+}
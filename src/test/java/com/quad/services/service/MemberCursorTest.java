@@ -0,0 +1,49 @@
+package com.quad.services.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberCursorTest {
+
+    @Test
+    void decodeReturnsTheEncodedPosition() {
+        MemberCursor cursor = new MemberCursor(LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000),
+                UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(MemberCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void garbageIsRejectedAsInvalidCursor() {
+        assertThatThrownBy(() -> MemberCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> MemberCursor.decode(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tamperedFieldsAreRejectedAsInvalidCursor() {
+        UUID id = UUID.randomUUID();
+        for (String raw : new String[] {"2026-03-14T15:09:26", "not-a-date|" + id,
+                "2026-03-14T15:09:26|not-a-uuid", "|" + id}) {
+            String token = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+            assertThatThrownBy(() -> MemberCursor.decode(token))
+                    .as(raw)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AgentRulesResponse;
+import com.quad.services.dto.OrgContext;
+import com.quad.services.dto.PromptRenderResponse;
+import com.quad.services.exception.TokenBudgetTooSmallException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+
+class PromptRendererTest {
+
+    private final OrgContext org = OrgContext.builder().orgId(UUID.randomUUID()).name("Acme Health")
+            .industry("healthcare").aiTier("standard").sandboxStrategy("container").build();
+    private final AgentRulesResponse rules = new AgentRulesResponse("add_api_endpoint", "healthcare",
+            List.of("Validate every request payload", "Log request IDs"), new int[]{100, 50},
+            List.of("Store PII in logs"), new int[]{100});
+    private PromptRenderer renderer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        renderer = new PromptRenderer(mock(AgentRulesService.class), mock(OrgContextService.class),
+                new ClassPathResource("prompts/agent-rules.prompt"), 1024 * 1024);
+    }
+
+    @Test
+    void dropsLowestPriorityRulesToStayWithinBudget() {
+        int templateOnly = ((TokenBudgetTooSmallException) catchThrowable(() -> renderer.render(rules, org, 1)))
+                .getRequiredTokens();
+        PromptRenderResponse response = renderer.render(rules, org, templateOnly + 12);
+
+        assertThat(response.getEstimatedTokens()).isLessThanOrEqualTo(response.getTokenBudget());
+        assertThat(response.getDroppedRules()).isPositive();
+        assertThat(response.getPrompt()).contains("Store PII in logs").doesNotContain("Log request IDs");
+    }
+
+    @Test
+    void rejectsBudgetSmallerThanTheTemplate() {
+        assertThatThrownBy(() -> renderer.render(rules, org, 10))
+                .isInstanceOf(TokenBudgetTooSmallException.class)
+                .satisfies(e -> assertThat(((TokenBudgetTooSmallException) e).getRequiredTokens()).isGreaterThan(10));
+    }
+}
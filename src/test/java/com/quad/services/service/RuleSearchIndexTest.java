@@ -0,0 +1,139 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.RuleIndexRow;
+import com.quad.services.dto.RuleSearchHit;
+import com.quad.services.dto.RuleSearchResponse;
+import com.quad.services.repository.IndustryDefaultRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RuleSearchIndexTest {
+
+    private static final String[] INDUSTRIES = {"general", "healthcare", "ecommerce", "insurance"};
+    private static final String[] WORDS = {"data", "validate", "user", "input", "log", "encryption", "key",
+            "rotation", "token", "session", "audit", "retry"};
+
+    private final List<RuleIndexRow> rows = new ArrayList<>();
+    private RuleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(7);
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder text = new StringBuilder(i % 2 == 0 ? "DO:" : "DONT:");
+            for (int t = 0, length = 4 + random.nextInt(10); t < length; t++) {
+                String word = t == 0 && random.nextInt(4) != 0 ? "data" : WORDS[1 + random.nextInt(WORDS.length - 1)];
+                text.append(' ').append(word);
+            }
+            // "data" is in most rules (accumulation path), "quarantine" in few (merge path)
+            if (i % 40 == 0) {
+                text.append(" quarantine");
+            }
+            rows.add(new Row(UUID.randomUUID(), INDUSTRIES[i % INDUSTRIES.length], "activity_" + (i % 7),
+                    i % 2 == 0 ? "DO" : "DONT", text.toString(), updatedAt));
+        }
+        IndustryDefaultRepository repository = mock(IndustryDefaultRepository.class);
+        when(repository.streamRulesForIndex()).thenAnswer(call -> rows.stream());
+        index = new RuleSearchIndex(repository, new RuleTextDictionary(), mock(PlatformTransactionManager.class));
+        index.rebuild();
+    }
+
+    @Test
+    void totalsAndFacetsCountEveryMatchOnBothPaths() {
+        for (String query : List.of("data", "validate user input", "quarantine", "quarantine retry")) {
+            for (String industry : List.of("", "healthcare")) {
+                RuleSearchResponse response = index.search(query, industry, "", "", 10);
+                List<RuleIndexRow> expected = matching(query, industry);
+
+                assertThat(response.getTotal()).as(query + " / " + industry).isEqualTo(expected.size());
+                assertThat(response.getFacets().get("industry"))
+                        .containsAllEntriesOf(counts(expected, RuleIndexRow::getIndustry));
+                assertThat(response.getFacets().get("activityType"))
+                        .containsAllEntriesOf(counts(expected, RuleIndexRow::getActivityType));
+                assertThat(response.getFacets().get("ruleType"))
+                        .containsAllEntriesOf(counts(expected, RuleIndexRow::getRuleType));
+                assertThat(response.getHits()).hasSize(Math.min(10, expected.size()))
+                        .allSatisfy(hit -> assertThat(industry.isEmpty() || hit.industry().equals(industry)).isTrue());
+            }
+        }
+    }
+
+    @Test
+    void repeatedBroadSearchesReturnIdenticalResults() {
+        // Broad multi-term searches reuse pooled per-doc scratch; leftovers would change the scores
+        RuleSearchResponse first = index.search("validate user input", "", "", "", 20);
+        index.search("data log", "", "", "", 20);
+        RuleSearchResponse second = index.search("validate user input", "", "", "", 20);
+
+        assertThat(second.getHits()).isEqualTo(first.getHits());
+        assertThat(second.getFacets()).isEqualTo(first.getFacets());
+        assertThat(first.getHits()).extracting(RuleSearchHit::score).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+    }
+
+    @Test
+    void unknownFacetValueMatchesNothing() {
+        RuleSearchResponse response = index.search("data", "aerospace", "", "", 10);
+
+        assertThat(response.getTotal()).isZero();
+        assertThat(response.getHits()).isEmpty();
+    }
+
+    private List<RuleIndexRow> matching(String query, String industry) {
+        Set<String> terms = new HashSet<>(RuleSearchIndex.tokenize(query));
+        return rows.stream()
+                .filter(row -> industry.isEmpty() || row.getIndustry().equals(industry))
+                .filter(row -> RuleSearchIndex.tokenize(row.getRuleText()).stream().anyMatch(terms::contains))
+                .toList();
+    }
+
+    private static Map<String, Integer> counts(List<RuleIndexRow> rows,
+                                               Function<RuleIndexRow, String> facet) {
+        Map<String, Integer> counts = new HashMap<>();
+        rows.forEach(row -> counts.merge(facet.apply(row), 1, Integer::sum));
+        return counts;
+    }
+
+    private record Row(UUID id, String industry, String activityType, String ruleType, String ruleText,
+                       LocalDateTime updatedAt) implements RuleIndexRow {
+        public UUID getId() {
+            return id;
+        }
+
+        public String getIndustry() {
+            return industry;
+        }
+
+        public String getActivityType() {
+            return activityType;
+        }
+
+        public String getRuleType() {
+            return ruleType;
+        }
+
+        public String getRuleText() {
+            return ruleText;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
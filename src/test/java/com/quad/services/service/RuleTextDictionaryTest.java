@@ -0,0 +1,79 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AgentRulesResponse;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleTextDictionaryTest {
+
+    // 50 industries x 60 activity types, 12 rules each, drawn from 600 distinct texts
+    private static final int INDUSTRIES = 50;
+    private static final int ACTIVITY_TYPES = 60;
+    private static final int RULES_PER_RESPONSE = 12;
+    private static final int DISTINCT_TEXTS = 600;
+
+    @Test
+    void internedResponsesRetainFarLessHeapThanStringCopies() {
+        RuleTextDictionary dictionary = new RuleTextDictionary();
+        List<Map<String, List<String>>> copies = new ArrayList<>();
+        List<AgentRulesResponse> interned = new ArrayList<>();
+
+        for (int industry = 0; industry < INDUSTRIES; industry++) {
+            for (int activity = 0; activity < ACTIVITY_TYPES; activity++) {
+                List<String> texts = new ArrayList<>();
+                for (int rule = 0; rule < RULES_PER_RESPONSE; rule++) {
+                    // A fresh String per row, as the JDBC driver returns them
+                    texts.add(new String(ruleText((activity * RULES_PER_RESPONSE + rule + industry) % DISTINCT_TEXTS)));
+                }
+                copies.add(Map.of("DO", texts, "DONT", List.of()));
+                interned.add(new AgentRulesResponse("activity_" + activity, "industry_" + industry,
+                        dictionary.current().internAll(texts), new int[texts.size()], List.of(), new int[0]));
+            }
+        }
+
+        long copyBytes = GraphLayout.parseInstance(copies).totalSize();
+        long internedBytes = GraphLayout.parseInstance(interned).totalSize();
+
+        assertThat(dictionary.size()).isEqualTo(DISTINCT_TEXTS);
+        // 36,000 rule rows: ~130 bytes of text each as copies, a 4-byte ID plus one copy of each text interned;
+        // per-response objects (names, views, arrays) keep the measured ratio near 5x
+        assertThat((double) copyBytes / internedBytes).isGreaterThan(4);
+        assertThat(interned.get(0).getRules().get("DO")).isEqualTo(copies.get(0).get("DO"));
+    }
+
+    @Test
+    void compactionStartsNewGenerationAndKeepsOldResponsesReadable() {
+        RuleTextDictionary dictionary = new RuleTextDictionary();
+        AgentRulesResponse before = response(dictionary.current());
+        for (int i = 1; i < 3_000; i++) {
+            dictionary.current().intern(ruleText(i));  // texts of rules since edited or deleted
+        }
+
+        assertThat(dictionary.compactIfSparse(2_500)).isFalse();
+        RuleTextDictionary.Generation old = dictionary.current();
+        assertThat(dictionary.compactIfSparse(100)).isTrue();
+
+        assertThat(dictionary.current()).isNotSameAs(old);
+        assertThat(dictionary.size()).isZero();
+        assertThat(before.getRules().get("DO")).containsExactly(ruleText(0));
+
+        AgentRulesResponse after = response(dictionary.current());
+        assertThat(after.getRules().get("DO")).containsExactly(ruleText(0));
+        assertThat(dictionary.size()).isEqualTo(1);
+    }
+
+    private static AgentRulesResponse response(RuleTextDictionary.Generation texts) {
+        return new AgentRulesResponse("add_api_endpoint", "general",
+                texts.internAll(List.of(ruleText(0))), new int[1], List.of(), new int[0]);
+    }
+
+    private static String ruleText(int i) {
+        return "Rule " + i + ": validate and sanitize every externally supplied field before it reaches the database";
+    }
+}
@@ -0,0 +1,86 @@
+package com.quad.services.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quad.services.dto.AgentRulesResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RulesPayloadCacheTest {
+
+    private final RulesPayloadCache cache = new RulesPayloadCache(new ObjectMapper(), 16 << 20);
+    private final AgentRulesResponse rules = largeRules();
+
+    @Test
+    void gzipAndIdentityHaveDistinctEtags() {
+        ResponseEntity<byte[]> gzip = cache.toResponse(rules, "gzip, deflate", null);
+        ResponseEntity<byte[]> identity = cache.toResponse(rules, null, null);
+
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzip.getHeaders().getETag()).isNotEqualTo(identity.getHeaders().getETag());
+        assertThat(gzip.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void gzipWithZeroQualityIsRefused() {
+        ResponseEntity<byte[]> response = cache.toResponse(rules, "gzip;q=0, identity", null);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(RulesPayloadCache.acceptsGzip("gzip;q=0.5")).isTrue();
+        assertThat(RulesPayloadCache.acceptsGzip("*;q=1")).isTrue();
+        assertThat(RulesPayloadCache.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(RulesPayloadCache.acceptsGzip("br")).isFalse();
+    }
+
+    @Test
+    void notModifiedOnlyForTheSelectedRepresentation() {
+        String identityEtag = cache.toResponse(rules, null, null).getHeaders().getETag();
+
+        ResponseEntity<byte[]> sameEncoding = cache.toResponse(rules, null, "W/" + identityEtag);
+        ResponseEntity<byte[]> otherEncoding = cache.toResponse(rules, "gzip", identityEtag);
+
+        assertThat(sameEncoding.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(sameEncoding.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(otherEncoding.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(cache.toResponse(rules, null, "\"other\", " + identityEtag).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void encodedPayloadsStayWithinTheirByteBudget() throws InterruptedException {
+        RulesPayloadCache small = new RulesPayloadCache(new ObjectMapper(), 64 * 1024);
+        List<AgentRulesResponse> responses = new ArrayList<>();  // Strong refs: weak keys would drop them anyway
+        for (int i = 0; i < 200; i++) {
+            AgentRulesResponse response = largeRules();
+            responses.add(response);
+            small.toResponse(response, "gzip", null);
+        }
+        small.toResponse(rules, null, null);
+
+        // Caffeine evicts during its (asynchronous) maintenance
+        for (int i = 0; i < 100 && small.weightedBytes() > 64 * 1024; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(responses).hasSize(200);
+        assertThat(small.weightedBytes()).isPositive().isLessThanOrEqualTo(64 * 1024);
+    }
+
+    private static AgentRulesResponse largeRules() {
+        RuleTextDictionary.Generation dictionary = new RuleTextDictionary().current();
+        int[] ids = new int[40];
+        int[] priorities = new int[40];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dictionary.intern("Always validate request payload field number " + i + " before persisting it");
+            priorities[i] = 100 - i;
+        }
+        return new AgentRulesResponse("add_api_endpoint", "general", dictionary.view(ids), priorities,
+                List.of(), new int[0]);
+    }
+}
@@ -0,0 +1,135 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.AuthResponse;
+import com.quad.services.dto.SignupRequest;
+import com.quad.services.exception.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SignupCoordinatorTest {
+
+    private static final int THREADS = 100;
+
+    private final AuthService authService = mock(AuthService.class);
+    // Stand-in for quad_users / quad_organizations behind AuthService's per-email advisory lock
+    private final Map<String, UUID> orgByEmail = new ConcurrentHashMap<>();
+    private final AtomicInteger orgsCreated = new AtomicInteger();
+    private SignupCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        when(authService.signup(any(SignupRequest.class))).thenAnswer(call -> {
+            SignupRequest request = call.getArgument(0);
+            Thread.sleep(100);  // Transaction time, so concurrent requests overlap it
+            synchronized (orgByEmail) {
+                UUID existing = orgByEmail.get(request.getEmail());
+                if (existing != null) {
+                    // Account linking: no new org
+                    return AuthResponse.builder().success(true).email(request.getEmail())
+                            .requiresVerification(true).build();
+                }
+                UUID orgId = UUID.randomUUID();
+                orgByEmail.put(request.getEmail(), orgId);
+                orgsCreated.incrementAndGet();
+                return AuthResponse.builder().success(true).email(request.getEmail()).orgId(orgId)
+                        .userId(UUID.randomUUID()).token("access-" + orgId).build();
+            }
+        });
+        coordinator = new SignupCoordinator(authService, new SimpleMeterRegistry(), 60, 1_000, 10_000);
+    }
+
+    @Test
+    void hundredConcurrentRetriesWithOneKeyCreateOneOrgAndShareOneResponse() throws Exception {
+        List<AuthResponse> responses = runConcurrently(() -> coordinator.signup(request("Acme"), "key-1"));
+
+        assertThat(orgsCreated).hasValue(1);
+        verify(authService, times(1)).signup(any(SignupRequest.class));
+        assertThat(responses).hasSize(THREADS).containsOnly(responses.get(0));
+        assertThat(responses.get(0).getOrgId()).isEqualTo(orgByEmail.get("founder@acme.io"));
+    }
+
+    @Test
+    void hundredConcurrentSignupsWithoutKeyCreateOneOrg() throws Exception {
+        List<AuthResponse> responses = runConcurrently(() -> coordinator.signup(request("Acme"), null));
+
+        assertThat(orgsCreated).hasValue(1);
+        // Requests that missed the in-flight signup take the account-linking path
+        assertThat(responses).hasSize(THREADS)
+                .extracting(AuthResponse::getOrgId)
+                .filteredOn(Objects::nonNull)
+                .containsOnly(orgByEmail.get("founder@acme.io"));
+    }
+
+    @Test
+    void replayedKeyReturnsStoredResponseWithoutSigningUpAgain() {
+        AuthResponse first = coordinator.signup(request("Acme"), "key-2");
+        AuthResponse replay = coordinator.signup(request("Acme"), "key-2");
+
+        assertThat(replay).isSameAs(first);
+        verify(authService, times(1)).signup(any(SignupRequest.class));
+    }
+
+    @Test
+    void keyReusedForDifferentRequestIsRejected() {
+        coordinator.signup(request("Acme"), "key-3");
+
+        assertThatThrownBy(() -> coordinator.signup(request("Other Co"), "key-3"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        verify(authService, times(1)).signup(any(SignupRequest.class));
+    }
+
+    private List<AuthResponse> runConcurrently(Callable<AuthResponse> signup) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<AuthResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return signup.call();
+                }));
+            }
+            start.countDown();
+            List<AuthResponse> responses = new ArrayList<>();
+            for (Future<AuthResponse> future : futures) {
+                responses.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static SignupRequest request(String companyName) {
+        SignupRequest request = new SignupRequest();
+        request.setEmail("founder@acme.io");
+        request.setFullName("Ada Founder");
+        request.setCompanyName(companyName);
+        request.setOrgType("enterprise");
+        request.setPassword("correct horse battery staple");
+        return request;
+    }
+}
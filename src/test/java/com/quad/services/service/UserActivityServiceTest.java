@@ -0,0 +1,105 @@
+package com.quad.services.service;
+
+import com.quad.services.dto.ActivityEventRequest;
+import com.quad.services.dto.ActivityTypeCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserActivityServiceTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_BATCHES_PER_FLUSH = 3;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);  // One clock reading for every event time
+    private UserActivityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserActivityService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                new CaffeineCacheManager("userHistory"), new SimpleMeterRegistry(),
+                100, 10_000, BATCH_SIZE, MAX_BATCHES_PER_FLUSH);
+    }
+
+    @Test
+    void recordNeverReadsTheDatabase() {
+        service.record(UUID.randomUUID(), UUID.randomUUID(), List.of(event("add_api_endpoint", 1)));
+
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void firstReadMergesPersistedHistoryWithoutDuplicatingFlushedEvents() {
+        UUID userId = UUID.randomUUID();
+        service.record(userId, null, List.of(event("fix_bug", 3)));
+
+        // Newest first, as RECENT_SQL returns them; the fix_bug row is the event recorded above
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(userId), anyInt())).thenReturn(List.of(
+                new ActivityRing.Event("fix_bug", null, millis(3)),
+                new ActivityRing.Event("add_api_endpoint", null, millis(2)),
+                new ActivityRing.Event("add_api_endpoint", null, millis(1))));
+
+        List<ActivityTypeCount> top = service.topActivityTypes(userId, Duration.ofDays(30), 5);
+        service.topActivityTypes(userId, Duration.ofDays(30), 5);
+
+        assertThat(top).extracting(ActivityTypeCount::activityType).containsExactly("add_api_endpoint", "fix_bug");
+        assertThat(top).extracting(ActivityTypeCount::count).containsExactly(2, 1);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(userId), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesAtMostMaxBatchesPerRun() {
+        UUID userId = UUID.randomUUID();
+        service.record(userId, null, IntStream.range(0, BATCH_SIZE * 5).mapToObj(i -> event("fix_bug", i)).toList());
+
+        service.flush();
+        verify(jdbcTemplate, times(MAX_BATCHES_PER_FLUSH))
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        service.flush();
+        verify(jdbcTemplate, times(5))
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private ActivityEventRequest event(String activityType, int minutesAgo) {
+        ActivityEventRequest event = new ActivityEventRequest();
+        event.setActivityType(activityType);
+        event.setTimestamp(time(minutesAgo));
+        return event;
+    }
+
+    private LocalDateTime time(int minutesAgo) {
+        return now.minusMinutes(minutesAgo);
+    }
+
+    private long millis(int minutesAgo) {
+        return time(minutesAgo).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}